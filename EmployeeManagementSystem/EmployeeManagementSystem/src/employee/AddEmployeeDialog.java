@@ -2,15 +2,15 @@ package employee;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.LinkedList;
 
 /**
  * Add Employee Dialog
  * Dialog for adding new employees to the system
+ * Built once and reused; open() clears the fields and shows it again.
  */
 public class AddEmployeeDialog extends JDialog {
     
-    private LinkedList<Employee> employees;
+    private final EmployeeRepository repository;
     private boolean employeeAdded = false;
     
     private JComboBox<String> typeComboBox;
@@ -20,12 +20,28 @@ public class AddEmployeeDialog extends JDialog {
     private JTextField salaryField;
     private JSpinner ratingSpinner;
     
-    public AddEmployeeDialog(JFrame parent, LinkedList<Employee> employees) {
+    public AddEmployeeDialog(JFrame parent, EmployeeRepository repository) {
         super(parent, "Add New Employee", true);
-        this.employees = employees;
+        this.repository = repository;
         initializeDialog();
     }
     
+    /**
+     * Clear the fields and show the dialog
+     */
+    public void open() {
+        employeeAdded = false;
+        typeComboBox.setSelectedIndex(0);
+        idField.setText("");
+        nameField.setText("");
+        departmentField.setText("");
+        salaryField.setText("");
+        ratingSpinner.setValue(3);
+        setLocationRelativeTo(getParent());
+        idField.requestFocusInWindow();
+        setVisible(true);
+    }
+    
     /**
      * Initialize the dialog components
      */
@@ -100,7 +116,7 @@ public class AddEmployeeDialog extends JDialog {
         JButton cancelButton = new JButton("Cancel");
         
         addButton.addActionListener(e -> addEmployee());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> setVisible(false));
         
         buttonPanel.add(addButton);
         buttonPanel.add(cancelButton);
@@ -129,12 +145,10 @@ public class AddEmployeeDialog extends JDialog {
             int rating = (Integer) ratingSpinner.getValue();
             
             // Check if ID already exists
-            for (Employee emp : employees) {
-                if (emp.getId().equalsIgnoreCase(id)) {
-                    JOptionPane.showMessageDialog(this, "Employee with this ID already exists!", 
-                                                "Duplicate ID", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+            if (repository.findById(id) != null) {
+                JOptionPane.showMessageDialog(this, "Employee with this ID already exists!", 
+                                            "Duplicate ID", JOptionPane.ERROR_MESSAGE);
+                return;
             }
             
             // Create employee based on type
@@ -146,11 +160,11 @@ public class AddEmployeeDialog extends JDialog {
             };
             
             if (emp != null) {
-                employees.add(emp);
+                repository.add(emp);
                 employeeAdded = true;
                 JOptionPane.showMessageDialog(this, "Employee added successfully!", 
                                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                dispose();
+                setVisible(false);
             }
             
         } catch (NumberFormatException e) {
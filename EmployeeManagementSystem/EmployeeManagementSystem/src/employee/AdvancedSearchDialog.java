@@ -5,31 +5,53 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.HashMap;
 
 /**
  * Advanced Search Dialog
  * Provides comprehensive search capabilities using various algorithms
+ * Built once and reused; open() keeps the last results unless employees changed.
+ * The list of all employees is read through a {@link QueryCursor} a page at a
+ * time; "More" appends the next page.
  */
 public class AdvancedSearchDialog extends JDialog {
     
-    private final LinkedList<Employee> employees;
+    private final EmployeeRepository repository;
     private JTable searchTable;
     private DefaultTableModel searchTableModel;
     private JLabel statusLabel;
+    private JPanel southPanel;
     private JComboBox<String> algorithmCombo;
     private JComboBox<SortingSearchingAlgorithms.SortCriteria> sortCriteriaCombo;
     private JComboBox<SortingSearchingAlgorithms.SortOrder> sortOrderCombo;
     private JComboBox<String> sortAlgorithmCombo;
+    private JSpinner topNSpinner;
+    private QueryPlanner.QueryPlan lastPlan;
+    private long shownVersion = -1; // Repository version the results were taken from
     
-    public AdvancedSearchDialog(JFrame parent, LinkedList<Employee> employees) {
+    private static final int PAGE_SIZE = 500;
+    private QueryCursor allCursor;  // Paging through all employees, null while showing search results
+    private JButton moreButton;
+    
+    public AdvancedSearchDialog(JFrame parent, EmployeeRepository repository) {
         super(parent, "Advanced Search & Sort", true);
-        this.employees = employees;
+        this.repository = repository;
         initializeDialog();
     }
     
+    /**
+     * Show the dialog, listing all employees again if they changed since it was last open
+     */
+    public void open() {
+        if (shownVersion != repository.getVersion()) {
+            displayAll();
+            updateStatus("Ready");
+        }
+        setLocationRelativeTo(getParent());
+        setVisible(true);
+    }
+    
     /**
      * Initialize the dialog components
      */
@@ -43,9 +65,6 @@ public class AdvancedSearchDialog extends JDialog {
         createResultsTable();
         createButtonPanel();
         createStatusBar();
-        
-        // Load all employees initially
-        displayResults(employees);
     }
     
     /**
@@ -78,7 +97,7 @@ public class AdvancedSearchDialog extends JDialog {
         searchPanel.add(new JLabel("Search Algorithm:"), gbc);
         
         gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
-        algorithmCombo = new JComboBox<>(new String[]{"Linear Search", "Binary Search", "Advanced Search", "Fuzzy Search", "Hybrid Search"});
+        algorithmCombo = new JComboBox<>(new String[]{"Linear Search", "Binary Search", "Prefix Search", "Advanced Search", "Fuzzy Search", "Hybrid Search"});
         searchPanel.add(algorithmCombo, gbc);
         
         // Fuzzy search distance (only for fuzzy search)
@@ -109,11 +128,11 @@ public class AdvancedSearchDialog extends JDialog {
             searchField.setText("");
             searchCriteriaCombo.setSelectedIndex(0);
             algorithmCombo.setSelectedIndex(0);
-            displayResults(employees);
+            displayAll();
             updateStatus("Search cleared. Showing all employees.");
         });
         showAllButton.addActionListener(e -> {
-            displayResults(employees);
+            displayAll();
             updateStatus("Showing all employees.");
         });
         
@@ -148,6 +167,19 @@ public class AdvancedSearchDialog extends JDialog {
         sortPanel.add(sortButton);
         sortPanel.add(sortMetricsButton);
         
+        sortPanel.add(new JLabel("N:"));
+        topNSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 100000, 1));
+        sortPanel.add(topNSpinner);
+        
+        JButton topButton = new JButton("⬆ Top N");
+        JButton bottomButton = new JButton("⬇ Bottom N");
+        
+        topButton.addActionListener(e -> showTopN(SortingSearchingAlgorithms.SortOrder.DESCENDING));
+        bottomButton.addActionListener(e -> showTopN(SortingSearchingAlgorithms.SortOrder.ASCENDING));
+        
+        sortPanel.add(topButton);
+        sortPanel.add(bottomButton);
+        
         add(sortPanel, BorderLayout.CENTER);
     }
     
@@ -187,31 +219,40 @@ public class AdvancedSearchDialog extends JDialog {
     private void createButtonPanel() {
         JPanel buttonPanel = new JPanel(new FlowLayout());
         
+        moreButton = new JButton("▶ More");
+        moreButton.setEnabled(false);
         JButton viewDetailsButton = new JButton("👁️ View Details");
         JButton saveResultsButton = new JButton("💾 Save Results");
         JButton rangeSearchButton = new JButton("📊 Range Search");
+        JButton explainButton = new JButton("📋 Explain Plan");
         JButton closeButton = new JButton("Close");
         
+        moreButton.addActionListener(e -> appendPage());
         viewDetailsButton.addActionListener(e -> viewEmployeeDetails());
         saveResultsButton.addActionListener(e -> saveSearchResults());
         rangeSearchButton.addActionListener(e -> showRangeSearchDialog());
-        closeButton.addActionListener(e -> dispose());
+        explainButton.addActionListener(e -> showQueryPlan());
+        closeButton.addActionListener(e -> setVisible(false));
         
+        buttonPanel.add(moreButton);
         buttonPanel.add(viewDetailsButton);
         buttonPanel.add(saveResultsButton);
         buttonPanel.add(rangeSearchButton);
+        buttonPanel.add(explainButton);
         buttonPanel.add(closeButton);
         
-        add(buttonPanel, BorderLayout.SOUTH);
+        southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
     /**
-     * Create status bar
+     * Create status bar below the buttons
      */
     private void createStatusBar() {
         statusLabel = new JLabel("Ready");
         statusLabel.setBorder(BorderFactory.createLoweredBevelBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        southPanel.add(statusLabel, BorderLayout.SOUTH);
     }
     
     /**
@@ -235,29 +276,33 @@ public class AdvancedSearchDialog extends JDialog {
         
         switch (algorithm) {
             case "Linear Search":
-                results = SortingSearchingAlgorithms.linearSearch(employees, searchTerm, criteria);
+                results = SortingSearchingAlgorithms.linearSearch(repository.snapshot(), searchTerm, criteria);
                 break;
             case "Binary Search":
-                // First sort the list for binary search
-                List<Employee> sortedEmployees = new ArrayList<>(employees);
-                SortingSearchingAlgorithms.quickSort(sortedEmployees, criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
-                
-                Employee found = SortingSearchingAlgorithms.binarySearch(sortedEmployees, searchTerm, criteria);
-                if (found != null) {
-                    results.add(found);
-                }
+                // Cached sorted view; returns every employee with an equal value
+                results = repository.read(() -> new ArrayList<>(SortingSearchingAlgorithms.binarySearchAll(
+                    repository.getSortedViews().view(criteria), searchTerm, criteria)));
+                break;
+            case "Prefix Search":
+                results = repository.read(() -> new ArrayList<>(SortingSearchingAlgorithms.prefixSearch(
+                    repository.getSortedViews().view(criteria), searchTerm, criteria)));
                 break;
             case "Advanced Search":
-                Map<SortingSearchingAlgorithms.SortCriteria, String> searchCriteria = new HashMap<>();
-                searchCriteria.put(criteria, searchTerm);
-                results = SortingSearchingAlgorithms.advancedSearch(employees, searchCriteria);
+                Map<SortingSearchingAlgorithms.SortCriteria, String> searchCriteria = parseSearchCriteria(criteria, searchTerm);
+                if (searchCriteria == null) return;
+                QueryPlanner planner = new QueryPlanner(repository);
+                // Plan and execute against one state of the indexes and views
+                results = repository.read(() -> {
+                    lastPlan = planner.plan(searchCriteria);
+                    return planner.execute(lastPlan);
+                });
                 break;
             case "Fuzzy Search":
                 int maxDistance = (Integer) distanceSpinner.getValue();
-                results = SortingSearchingAlgorithms.fuzzySearch(employees, searchTerm, maxDistance);
+                results = SortingSearchingAlgorithms.fuzzySearch(repository.snapshot(), searchTerm, maxDistance);
                 break;
             case "Hybrid Search":
-                results = SortingSearchingAlgorithms.hybridSearch(employees, searchTerm, criteria);
+                results = SortingSearchingAlgorithms.hybridSearch(repository.snapshot(), searchTerm, criteria);
                 break;
         }
         
@@ -274,6 +319,52 @@ public class AdvancedSearchDialog extends JDialog {
         }
     }
     
+    /**
+     * Parse the search term of an Advanced Search
+     * Either a plain term for the selected criteria, or several
+     * CRITERIA=term pairs separated by ';' (e.g. "DEPARTMENT=it; EMPLOYEE_TYPE=manager").
+     * Returns null (after showing an error) if a criteria name is unknown.
+     */
+    private Map<SortingSearchingAlgorithms.SortCriteria, String> parseSearchCriteria(
+            SortingSearchingAlgorithms.SortCriteria selectedCriteria, String searchTerm) {
+        Map<SortingSearchingAlgorithms.SortCriteria, String> searchCriteria = new HashMap<>();
+        if (!searchTerm.contains("=")) {
+            searchCriteria.put(selectedCriteria, searchTerm);
+            return searchCriteria;
+        }
+
+        for (String pair : searchTerm.split(";")) {
+            if (pair.isBlank()) continue;
+            String[] parts = pair.split("=", 2);
+            try {
+                SortingSearchingAlgorithms.SortCriteria criteria =
+                    SortingSearchingAlgorithms.SortCriteria.valueOf(parts[0].trim().toUpperCase());
+                searchCriteria.put(criteria, parts.length > 1 ? parts[1].trim() : "");
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Unknown search criteria: " + parts[0].trim(),
+                                            "Invalid Search", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }
+        }
+        return searchCriteria;
+    }
+
+    /**
+     * Show the plan chosen for the last Advanced Search
+     */
+    private void showQueryPlan() {
+        if (lastPlan == null) {
+            JOptionPane.showMessageDialog(this, "Run an Advanced Search first.",
+                                        "No Query Plan", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JTextArea planArea = new JTextArea(lastPlan.explain());
+        planArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        planArea.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(planArea),
+                                    "Query Plan", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Perform sorting
      */
@@ -284,7 +375,7 @@ public class AdvancedSearchDialog extends JDialog {
             (SortingSearchingAlgorithms.SortOrder) sortOrderCombo.getSelectedItem();
         String algorithm = (String) sortAlgorithmCombo.getSelectedItem();
         
-        List<Employee> sortedEmployees = new ArrayList<>(employees);
+        List<Employee> sortedEmployees = repository.snapshot();
         
         switch (algorithm) {
             case "Quick Sort":
@@ -305,6 +396,26 @@ public class AdvancedSearchDialog extends JDialog {
         updateStatus(String.format("Sorted by %s (%s) using %s", criteria, order, algorithm));
     }
     
+    /**
+     * Show the N highest (DESCENDING) or lowest (ASCENDING) employees by the
+     * selected criteria using a bounded heap instead of a full sort
+     */
+    private void showTopN(SortingSearchingAlgorithms.SortOrder order) {
+        SortingSearchingAlgorithms.SortCriteria criteria = 
+            (SortingSearchingAlgorithms.SortCriteria) sortCriteriaCombo.getSelectedItem();
+        int n = (Integer) topNSpinner.getValue();
+        
+        long startTime = System.nanoTime();
+        List<Employee> employees = repository.snapshot();
+        List<Employee> results = SortingSearchingAlgorithms.topKParallel(employees, criteria, order, n);
+        long elapsed = System.nanoTime() - startTime;
+        
+        displayResults(results);
+        updateStatus(String.format("%s %d by %s of %d employees in %.2f ms",
+            order == SortingSearchingAlgorithms.SortOrder.DESCENDING ? "Top" : "Bottom",
+            results.size(), criteria, employees.size(), elapsed / 1_000_000.0));
+    }
+    
     /**
      * Perform sorting with performance metrics
      */
@@ -315,7 +426,7 @@ public class AdvancedSearchDialog extends JDialog {
             (SortingSearchingAlgorithms.SortOrder) sortOrderCombo.getSelectedItem();
         String algorithm = (String) sortAlgorithmCombo.getSelectedItem();
         
-        List<Employee> sortedEmployees = new ArrayList<>(employees);
+        List<Employee> sortedEmployees = repository.snapshot();
         SortingSearchingAlgorithms.SortingMetrics metrics = 
             SortingSearchingAlgorithms.sortWithMetrics(sortedEmployees, criteria, order, algorithm);
         
@@ -325,7 +436,7 @@ public class AdvancedSearchDialog extends JDialog {
         // Show metrics dialog
         JOptionPane.showMessageDialog(this, 
             String.format("Sorting Performance Metrics:\n\n%s\n\nSorted %d employees", 
-                         metrics.toString(), employees.size()),
+                         metrics.toString(), sortedEmployees.size()),
             "Sorting Metrics", JOptionPane.INFORMATION_MESSAGE);
     }
     
@@ -366,7 +477,7 @@ public class AdvancedSearchDialog extends JDialog {
                 SortingSearchingAlgorithms.SortCriteria criteria = 
                     (SortingSearchingAlgorithms.SortCriteria) rangeCriteriaCombo.getSelectedItem();
                 
-                List<Employee> results = SortingSearchingAlgorithms.rangeSearch(employees, criteria, minValue, maxValue);
+                List<Employee> results = SortingSearchingAlgorithms.rangeSearch(repository.snapshot(), criteria, minValue, maxValue);
                 displayResults(results);
                 updateStatus(String.format("Range search found %d employee(s) between %.2f and %.2f", 
                                          results.size(), minValue, maxValue));
@@ -389,8 +500,38 @@ public class AdvancedSearchDialog extends JDialog {
      * Display search results in the table
      */
     private void displayResults(List<Employee> results) {
+        allCursor = null;
+        moreButton.setEnabled(false);
+        shownVersion = repository.getVersion();
         searchTableModel.setRowCount(0);
-        int serialNumber = 1;
+        addRows(results);
+    }
+    
+    /**
+     * Show the first page of all employees
+     */
+    private void displayAll() {
+        shownVersion = repository.getVersion();
+        searchTableModel.setRowCount(0);
+        allCursor = QueryCursor.open(repository, null);
+        appendPage();
+    }
+    
+    /**
+     * Append the next page of all employees
+     */
+    private void appendPage() {
+        if (allCursor == null) return;
+        addRows(allCursor.next(PAGE_SIZE));
+        moreButton.setEnabled(allCursor.hasMore());
+        if (allCursor.hasMore()) {
+            updateStatus("Showing " + searchTableModel.getRowCount() + " of " + repository.size()
+                         + " employees. Click More for the next page.");
+        }
+    }
+    
+    private void addRows(List<Employee> results) {
+        int serialNumber = searchTableModel.getRowCount() + 1;
         for (Employee emp : results) {
             Object[] row = {
                 serialNumber++,                    // S.N.
@@ -461,9 +602,15 @@ public class AdvancedSearchDialog extends JDialog {
      * Save search results to file
      */
     private void saveSearchResults() {
-        List<Employee> currentResults = new ArrayList<>();
+        if (allCursor != null) {
+            // Paging through all employees: export everyone, not just the pages shown
+            ExportTask.start(this, (file, format, progress) ->
+                QueryExporter.export(repository, null, file, format, progress));
+            return;
+        }
         
         // Get current displayed results
+        List<Employee> currentResults = new ArrayList<>();
         for (int i = 0; i < searchTableModel.getRowCount(); i++) {
             String empId = (String) searchTableModel.getValueAt(i, 2);
             Employee emp = findEmployeeById(empId);
@@ -478,29 +625,15 @@ public class AdvancedSearchDialog extends JDialog {
             return;
         }
         
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Files", "csv", "txt"));
-        
-        int result = fileChooser.showSaveDialog(this);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            String filename = fileChooser.getSelectedFile().getAbsolutePath();
-            LinkedList<Employee> resultsLinkedList = new LinkedList<>(currentResults);
-            FileHandler.saveQueryResults(resultsLinkedList, filename);
-            JOptionPane.showMessageDialog(this, "Search results saved successfully!", 
-                                        "Save Success", JOptionPane.INFORMATION_MESSAGE);
-        }
+        ExportTask.start(this, (file, format, progress) ->
+            QueryExporter.export(currentResults, file, format, progress));
     }
     
     /**
      * Find employee by ID
      */
     private Employee findEmployeeById(String id) {
-        for (Employee emp : employees) {
-            if (emp.getId().equalsIgnoreCase(id)) {
-                return emp;
-            }
-        }
-        return null;
+        return repository.findById(id);
     }
     
     /**
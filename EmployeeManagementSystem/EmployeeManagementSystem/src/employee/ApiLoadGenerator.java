@@ -0,0 +1,154 @@
+package employee;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API Load Generator
+ * Measures an {@link EmployeeApiServer} under load: a number of concurrent
+ * clients each send GET requests back to back, cycling through the given
+ * URLs, for a fixed duration. Every client keeps its own latency samples, so
+ * recording adds no contention; they are merged for the percentiles at the
+ * end. Clients run on virtual threads where available, like the server.
+ */
+public class ApiLoadGenerator {
+
+    /**
+     * Outcome of a load test
+     */
+    public static class Report {
+        private final int clients;
+        private final long requests;
+        private final long errors;
+        private final long durationNanos;
+        private final long[] sortedLatencies;
+
+        Report(int clients, long requests, long errors, long durationNanos, long[] sortedLatencies) {
+            this.clients = clients;
+            this.requests = requests;
+            this.errors = errors;
+            this.durationNanos = durationNanos;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        public long getRequests() { return requests; }
+        /** Failed requests and responses with status 400 or above */
+        public long getErrors() { return errors; }
+
+        public double getRequestsPerSecond() {
+            return durationNanos == 0 ? 0 : requests * 1e9 / durationNanos;
+        }
+
+        /** Latency at a quantile (0-1) in nanoseconds */
+        public long getLatencyNanos(double quantile) {
+            if (sortedLatencies.length == 0) return 0;
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d clients: %,d requests (%,d errors) in %.1f s = %,.0f req/s | "
+                                 + "latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                                 clients, requests, errors, durationNanos / 1e9, getRequestsPerSecond(),
+                                 getLatencyNanos(0.5) / 1e6, getLatencyNanos(0.9) / 1e6,
+                                 getLatencyNanos(0.99) / 1e6, getLatencyNanos(1.0) / 1e6);
+        }
+    }
+
+    /**
+     * Latency samples and error count of one client
+     */
+    private static class ClientStats {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Run the load test and wait for it to finish
+     */
+    public static Report run(List<URI> targets, int clients, Duration duration) throws InterruptedException {
+        if (targets.isEmpty()) throw new IllegalArgumentException("At least one URL is required");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<HttpRequest> requests = new ArrayList<>(targets.size());
+        for (URI target : targets) requests.add(HttpRequest.newBuilder(target).GET().build());
+
+        List<ClientStats> stats = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) stats.add(new ClientStats());
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(clients);
+        long[] window = new long[2]; // Start and end of the measurement
+
+        ExecutorService executor = EmployeeApiServer.newThreadPerTaskExecutor("load-client");
+        for (int i = 0; i < clients; i++) {
+            ClientStats own = stats.get(i);
+            int offset = i;
+            executor.execute(() -> {
+                try {
+                    ready.countDown();
+                    go.await();
+                    long deadline = window[1];
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(n % requests.size()),
+                                                                      HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) own.errors++;
+                        } catch (IOException e) {
+                            own.errors++;
+                        }
+                        own.record(System.nanoTime() - start);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        ready.await();
+        window[0] = System.nanoTime();
+        window[1] = window[0] + duration.toNanos();
+        go.countDown(); // Publishes the window to the clients
+        finished.await();
+        long elapsed = System.nanoTime() - window[0];
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        int total = 0;
+        long errors = 0;
+        for (ClientStats own : stats) {
+            total += own.count;
+            errors += own.errors;
+        }
+        long[] latencies = new long[total];
+        int position = 0;
+        for (ClientStats own : stats) {
+            System.arraycopy(own.latencies, 0, latencies, position, own.count);
+            position += own.count;
+        }
+        Arrays.sort(latencies);
+        return new Report(clients, total, errors, elapsed, latencies);
+    }
+}
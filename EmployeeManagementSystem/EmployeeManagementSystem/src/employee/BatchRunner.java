@@ -0,0 +1,310 @@
+package employee;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Batch Runner
+ * Runs a script of commands without prompts, for scheduled jobs, e.g.
+ *
+ *   load employees.csv
+ *   import new_hires.csv
+ *   add Manager,M100,Alice,IT,80000,4
+ *   update E17 salary=52000 rating=4 name=Jane Doe
+ *   delete E23
+ *   commit
+ *   query DEPARTMENT=Finance; PERFORMANCE_RATING>=4
+ *   export finance.jsonl DEPARTMENT=Finance
+ *   bulk-adjust 3.5 PERFORMANCE_RATING>=4
+ *   save employees.csv
+ *
+ * Lines are executed as they are read, so another process can pipe commands
+ * in. Consecutive add, update and delete commands form one transaction, which
+ * is applied under a single write lock when "commit", any other command or
+ * the end of the script is reached. A second change to an employee already
+ * in the transaction commits it first, so commands keep their order. A
+ * mutation that cannot apply (unknown or duplicate ID, bad value) is reported
+ * and left out of its transaction.
+ *
+ * Results are printed as one JSON object per line with the script line, the
+ * status and the duration in milliseconds. Queued mutations print nothing
+ * unless they fail; their transaction prints one line when committed.
+ * Blank lines and lines starting with '#' are ignored.
+ */
+public class BatchRunner {
+
+    private final EmployeeRepository repository;
+    private final PrintStream out;
+    private int lineNumber;
+    private int commandCount;
+    private int errorCount;
+
+    // Current transaction
+    private final List<Employee> pendingAdds = new ArrayList<>();
+    private final List<Employee> pendingUpdates = new ArrayList<>();
+    private final List<Consumer<Employee>> pendingChanges = new ArrayList<>();
+    private final List<Employee> pendingDeletes = new ArrayList<>();
+    private final Set<String> pendingIds = new HashSet<>();
+    private int firstPendingLine;
+
+    public BatchRunner(EmployeeRepository repository, PrintStream out) {
+        this.repository = repository;
+        this.out = out;
+    }
+
+    /**
+     * Run every command from the reader
+     * Returns the number of commands that failed.
+     */
+    public int run(BufferedReader in) throws IOException {
+        long startTime = System.nanoTime();
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            commandCount++;
+            int space = line.indexOf(' ');
+            String command = space < 0 ? line : line.substring(0, space);
+            String args = space < 0 ? "" : line.substring(space + 1).trim();
+            execute(command.toLowerCase(), args);
+        }
+        commit();
+        out.println(new Result("end", startTime)
+                .field("commands", commandCount)
+                .field("errors", errorCount));
+        out.flush();
+        return errorCount;
+    }
+
+    private void execute(String command, String args) {
+        long startTime = System.nanoTime();
+        try {
+            switch (command) {
+                case "add" -> queueAdd(args);
+                case "update" -> queueUpdate(args);
+                case "delete" -> queueDelete(args);
+                case "commit" -> {
+                    if (!commit()) out.println(new Result(command, startTime).field("changes", 0));
+                }
+                case "load" -> {
+                    commit();
+                    EmployeeAggregates.Builder stats = new EmployeeAggregates.Builder();
+                    List<Employee> loaded = FileHandler.loadEmployees(requireArgument(args, "filename"),
+                                                                      stats, batch -> { }, FileHandler.Progress.NONE);
+                    repository.replaceAll(loaded, stats);
+                    out.println(new Result(command, startTime).field("employees", repository.size()));
+                }
+                case "import" -> {
+                    commit();
+                    ImportPipeline.Result result = new ImportPipeline(repository)
+                            .run(Path.of(requireArgument(args, "filename")), FileHandler.Progress.NONE);
+                    out.println(new Result(command, startTime)
+                            .field("employees", result.getImported())
+                            .field("rejected", result.getRejected()));
+                }
+                case "save" -> {
+                    commit();
+                    List<Employee> snapshot = repository.detachedSnapshot();
+                    FileHandler.saveEmployees(requireArgument(args, "filename"), snapshot, FileHandler.Progress.NONE);
+                    out.println(new Result(command, startTime).field("employees", snapshot.size()));
+                }
+                case "query" -> {
+                    commit();
+                    int matches = QueryCursor.open(repository, SalaryAdjustment.parseCondition(args)).count();
+                    out.println(new Result(command, startTime).field("matches", matches));
+                }
+                case "export" -> {
+                    commit();
+                    String[] parts = requireArgument(args, "filename").split("\\s+", 2);
+                    EmployeeQuery query = SalaryAdjustment.parseCondition(parts.length > 1 ? parts[1] : "");
+                    long written = QueryExporter.export(repository, query, Path.of(parts[0]),
+                                                        QueryExporter.Format.forFile(parts[0]), FileHandler.Progress.NONE);
+                    out.println(new Result(command, startTime).field("employees", written));
+                }
+                case "bulk-adjust" -> {
+                    commit();
+                    String[] parts = requireArgument(args, "percentage").split("\\s+", 2);
+                    double percent = Double.parseDouble(parts[0]);
+                    EmployeeQuery condition = SalaryAdjustment.parseCondition(parts.length > 1 ? parts[1] : "");
+                    SalaryAdjustment adjustment = condition == null
+                        ? new SalaryAdjustment().otherwise(percent)
+                        : new SalaryAdjustment().when(condition, percent);
+                    SalaryAdjustment.Result result = adjustment.apply(repository, Path.of(SalaryAdjustment.DEFAULT_LOG));
+                    out.println(new Result(command, startTime)
+                            .field("employees", result.getEmployeeCount())
+                            .field("deltaCents", result.getDeltaCents()));
+                }
+                default -> throw new IllegalArgumentException("Unknown command");
+            }
+        } catch (IOException | RuntimeException e) {
+            errorCount++;
+            out.println(new Result(command, startTime).error(e));
+        }
+        out.flush();
+    }
+
+    // ---------------- Transactions ----------------
+
+    /**
+     * Queue "add Type,ID,Name,Department,Salary,Rating"
+     */
+    private void queueAdd(String args) {
+        // Same rules as the import and the add dialog
+        String reason = ImportPipeline.validate(args.split(",", -1));
+        if (reason != null) throw new IllegalArgumentException(reason);
+        Employee emp = FileHandler.parse(args);
+        if (emp == null) throw new IllegalArgumentException("Expected Type,ID,Name,Department,Salary,Rating");
+        String key = beginChange(emp.getId());
+        if (repository.findById(emp.getId()) != null) {
+            throw new IllegalArgumentException("Employee already exists: " + emp.getId());
+        }
+        pendingIds.add(key);
+        pendingAdds.add(emp);
+    }
+
+    /**
+     * Queue "update ID field=value ..." with fields name, department, salary and rating
+     * Values run up to the next field, so names may contain spaces.
+     */
+    private void queueUpdate(String args) {
+        String[] parts = args.split("\\s+(?=\\w+=)");
+        if (parts.length < 2) throw new IllegalArgumentException("Expected ID field=value ...");
+        Consumer<Employee> changes = emp -> { };
+        for (int i = 1; i < parts.length; i++) {
+            String[] field = parts[i].split("=", 2);
+            String value = field[1].trim();
+            Consumer<Employee> change = switch (field[0].toLowerCase()) {
+                case "name" -> {
+                    if (value.isEmpty()) throw new IllegalArgumentException("Employee name is required");
+                    yield emp -> emp.setName(value);
+                }
+                case "department" -> {
+                    if (value.isEmpty()) throw new IllegalArgumentException("Department is required");
+                    yield emp -> emp.setDepartment(value);
+                }
+                case "salary" -> {
+                    double salary = Double.parseDouble(value);
+                    if (!Double.isFinite(salary)) throw new IllegalArgumentException("Invalid salary format");
+                    if (salary < 0) throw new IllegalArgumentException("Salary cannot be negative");
+                    yield emp -> emp.setSalary(salary);
+                }
+                case "rating" -> {
+                    int rating = Integer.parseInt(value);
+                    if (rating < 1 || rating > 5) throw new IllegalArgumentException("Rating must be between 1 and 5");
+                    yield emp -> emp.setPerformanceRating(rating);
+                }
+                default -> throw new IllegalArgumentException("Unknown field: " + field[0]);
+            };
+            changes = changes.andThen(change);
+        }
+        String key = beginChange(parts[0]);
+        Employee emp = requireEmployee(parts[0]);
+        pendingIds.add(key);
+        pendingUpdates.add(emp);
+        pendingChanges.add(changes);
+    }
+
+    /**
+     * Queue "delete ID"
+     */
+    private void queueDelete(String args) {
+        String key = beginChange(requireArgument(args, "ID"));
+        Employee emp = requireEmployee(args);
+        pendingIds.add(key);
+        pendingDeletes.add(emp);
+    }
+
+    /**
+     * Commit the transaction first if it already changes this employee
+     */
+    private String beginChange(String id) {
+        String key = id.toLowerCase();
+        if (pendingIds.contains(key)) commit();
+        if (pendingIds.isEmpty()) firstPendingLine = lineNumber;
+        return key;
+    }
+
+    /**
+     * Apply the queued mutations as one step
+     * Returns false if nothing was queued.
+     */
+    private boolean commit() {
+        if (pendingIds.isEmpty()) return false;
+        long startTime = System.nanoTime();
+        int[] counts = new int[3];
+        repository.write(() -> {
+            counts[0] = repository.addAll(pendingAdds);
+            if (!pendingUpdates.isEmpty()) {
+                repository.updateAll(pendingUpdates, (emp, i) -> pendingChanges.get(i).accept(emp));
+                counts[1] = pendingUpdates.size();
+            }
+            counts[2] = repository.removeAll(pendingDeletes);
+        });
+        out.println(new Result("commit", startTime)
+                .field("fromLine", firstPendingLine)
+                .field("added", counts[0])
+                .field("updated", counts[1])
+                .field("deleted", counts[2]));
+        pendingAdds.clear();
+        pendingUpdates.clear();
+        pendingChanges.clear();
+        pendingDeletes.clear();
+        pendingIds.clear();
+        return true;
+    }
+
+    private Employee requireEmployee(String id) {
+        Employee emp = repository.findById(id.trim());
+        if (emp == null) throw new IllegalArgumentException("Employee not found: " + id.trim());
+        return emp;
+    }
+
+    private static String requireArgument(String args, String name) {
+        if (args.isEmpty()) throw new IllegalArgumentException("Missing " + name);
+        return args;
+    }
+
+    // ---------------- Output ----------------
+
+    /**
+     * One JSON result line
+     */
+    private class Result {
+        private final StringBuilder json = new StringBuilder(128);
+        private final long startTime;
+        private boolean failed;
+
+        Result(String command, long startTime) {
+            this.startTime = startTime;
+            json.append("{\"line\":").append(lineNumber).append(",\"command\":");
+            QueryExporter.appendJson(json, command);
+        }
+
+        Result field(String name, long value) {
+            json.append(",\"").append(name).append("\":").append(value);
+            return this;
+        }
+
+        Result error(Exception e) {
+            failed = true;
+            json.append(",\"message\":");
+            QueryExporter.appendJson(json, e.getMessage() == null ? e.toString() : e.getMessage());
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return json + ",\"status\":\"" + (failed ? "error" : "ok") + "\",\"ms\":" +
+                   String.format(Locale.ROOT, "%.3f", (System.nanoTime() - startTime) / 1_000_000.0) + "}";
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package employee;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bonus Policy
+ * Table of automatic bonus rules, checked top to bottom: the first rule whose
+ * employee type and department match gives the bonus rate, "*" matches any
+ * type or department, and employees matching no rule get no bonus. Rates are
+ * kept in basis points (1000 = 10%).
+ *
+ * Policies are immutable. One policy is in force for all employees and is
+ * replaced through EmployeeRepository.setBonusPolicy(), which re-evaluates
+ * every total salary in one step.
+ */
+public final class BonusPolicy {
+
+    /** Policy file used by the GUI and CUI */
+    public static final String DEFAULT_FILE = "bonus_policy.csv";
+
+    /** Wildcard for type or department */
+    public static final String ANY = "*";
+
+    /**
+     * One row of the table
+     */
+    public static final class Rule {
+        private final String type;
+        private final String department;
+        private final int basisPoints;
+
+        public Rule(String type, String department, int basisPoints) {
+            this.type = type.trim();
+            this.department = department.trim();
+            this.basisPoints = basisPoints;
+        }
+
+        public String getType() { return type; }
+        public String getDepartment() { return department; }
+        public int getBasisPoints() { return basisPoints; }
+
+        boolean matches(Employee emp) {
+            return (type.equals(ANY) || type.equalsIgnoreCase(emp.getClass().getSimpleName()))
+                && (department.equals(ANY) || department.equalsIgnoreCase(emp.getDepartment()));
+        }
+    }
+
+    /** Managers +10%, Interns +50%, Regular employees no bonus */
+    private static final BonusPolicy DEFAULT = new BonusPolicy(List.of(
+        new Rule("Manager", ANY, 1_000),
+        new Rule("Intern", ANY, 5_000)));
+
+    private static volatile BonusPolicy current = DEFAULT;
+
+    private final List<Rule> rules;
+
+    public BonusPolicy(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * The built-in policy: Manager 10%, Intern 50%, Regular none
+     */
+    public static BonusPolicy defaults() { return DEFAULT; }
+
+    /**
+     * The policy currently in force
+     */
+    public static BonusPolicy current() { return current; }
+
+    /**
+     * Put a policy in force; callers must re-announce all employees afterwards
+     */
+    static void setCurrent(BonusPolicy policy) { current = policy; }
+
+    public List<Rule> getRules() { return rules; }
+
+    /**
+     * Automatic bonus rate of an employee in basis points
+     */
+    public int rateOf(Employee emp) {
+        for (Rule rule : rules) {
+            if (rule.matches(emp)) return rule.basisPoints;
+        }
+        return 0;
+    }
+
+    /**
+     * Base salary plus automatic bonus under this policy
+     */
+    public double totalSalary(Employee emp) {
+        double salary = emp.getSalary();
+        return salary + salary * (rateOf(emp) / 10_000.0);
+    }
+
+    // ---------------- File format ----------------
+
+    /**
+     * Load a policy from CSV lines "type,department,percent", e.g. "Manager,*,10"
+     * Blank lines and lines starting with '#' are ignored.
+     */
+    public static BonusPolicy load(Path file) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] parts = line.split(",");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected type,department,percent");
+                }
+                rules.add(new Rule(parts[0], parts[1], toBasisPoints(Double.parseDouble(parts[2].trim()))));
+            }
+        }
+        return new BonusPolicy(rules);
+    }
+
+    /**
+     * Save this policy in the format read by load()
+     */
+    public void save(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# type,department,percent (first matching rule applies, * matches any)");
+            writer.newLine();
+            for (Rule rule : rules) {
+                writer.write(rule.type + "," + rule.department + "," + toPercent(rule.basisPoints));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Percent (e.g. 12.5) to basis points (1250)
+     */
+    public static int toBasisPoints(double percent) {
+        if (percent < 0) throw new IllegalArgumentException("Bonus cannot be negative: " + percent);
+        return (int) Math.round(percent * 100.0);
+    }
+
+    /**
+     * Basis points (1250) to percent text ("12.5")
+     */
+    public static String toPercent(int basisPoints) {
+        return basisPoints % 100 == 0
+            ? String.valueOf(basisPoints / 100)
+            : String.valueOf(basisPoints / 100.0);
+    }
+}
@@ -0,0 +1,131 @@
+package employee;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.Arrays;
+
+/**
+ * EDT Monitor
+ * Event queue that times every event dispatched on the Swing event dispatch
+ * thread. The durations of the most recent events feed the latency
+ * percentiles shown in the performance HUD. A watchdog thread takes a stack
+ * sample of the EDT while an event is running longer than the stall threshold,
+ * and the stall is logged with that sample once the event finishes.
+ */
+public class EdtMonitor extends EventQueue {
+
+    /** Events running at least this long are logged as stalls */
+    public static final long STALL_THRESHOLD_NANOS = 100_000_000L;
+
+    /** Number of recent dispatch durations kept for percentiles */
+    private static final int WINDOW = 2048;
+
+    /** How often the watchdog looks at the running event */
+    private static final long WATCHDOG_INTERVAL_MS = 20;
+
+    /** Stack frames printed per stall */
+    private static final int STACK_DEPTH = 15;
+
+    // Written and read on the EDT only
+    private final long[] durations = new long[WINDOW];
+    private long dispatched;
+    private long stalls;
+    private long maxNanos;
+    private long dispatchSequence;
+
+    // Shared with the watchdog thread
+    private volatile long dispatchStart;   // 0 while idle
+    private volatile Thread dispatchThread;
+    private volatile StackTraceElement[] stallSample;
+
+    private EdtMonitor() {
+    }
+
+    /**
+     * Put a monitor in front of the system event queue and start its watchdog
+     */
+    public static EdtMonitor install() {
+        EdtMonitor monitor = new EdtMonitor();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        Thread watchdog = new Thread(monitor::watch, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        return monitor;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long sequence = ++dispatchSequence;
+        long start = System.nanoTime();
+        dispatchThread = Thread.currentThread();
+        stallSample = null;
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            dispatchStart = 0;
+            // A modal dialog pumps events inside the outer one; only time leaf events
+            if (sequence == dispatchSequence) {
+                long duration = System.nanoTime() - start;
+                durations[(int) (dispatched++ % WINDOW)] = duration;
+                maxNanos = Math.max(maxNanos, duration);
+                if (duration >= STALL_THRESHOLD_NANOS) {
+                    stalls++;
+                    logStall(event, duration, stallSample);
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            try {
+                Thread.sleep(WATCHDOG_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            Thread thread = dispatchThread;
+            if (start != 0 && thread != null && stallSample == null
+                    && System.nanoTime() - start >= STALL_THRESHOLD_NANOS) {
+                stallSample = thread.getStackTrace();
+            }
+        }
+    }
+
+    private static void logStall(AWTEvent event, long durationNanos, StackTraceElement[] sample) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("⚠ EDT stall: %.0f ms in %s%n", durationNanos / 1_000_000.0,
+                                event.getClass().getSimpleName()));
+        if (sample == null) {
+            sb.append("    (no stack sample)").append(System.lineSeparator());
+        } else {
+            for (int i = 0; i < Math.min(STACK_DEPTH, sample.length); i++) {
+                sb.append("    at ").append(sample[i]).append(System.lineSeparator());
+            }
+        }
+        System.out.print(sb);
+    }
+
+    // ---------------- Statistics (call on the EDT) ----------------
+
+    /**
+     * Dispatch duration percentiles in nanoseconds over the recent events, e.g. 0.5, 0.9, 0.99
+     */
+    public long[] percentiles(double... fractions) {
+        int size = (int) Math.min(dispatched, WINDOW);
+        long[] result = new long[fractions.length];
+        if (size == 0) return result;
+        long[] sorted = Arrays.copyOf(durations, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < fractions.length; i++) {
+            result[i] = sorted[Math.min(size - 1, (int) (fractions[i] * size))];
+        }
+        return result;
+    }
+
+    public long getDispatchedCount() { return dispatched; }
+    public long getStallCount() { return stalls; }
+    public long getMaxNanos() { return maxNanos; }
+}
@@ -13,6 +13,8 @@ public abstract class Employee {
     protected double salary;         // Base salary
     protected int performanceRating; // Performance rating (1–5)
 
+    private volatile TotalSalary totalSalary; // Cached result of calculateSalary()
+
     /**
      * Constructor to initialize Employee attributes
      */
@@ -25,10 +27,41 @@ public abstract class Employee {
     }
 
     /**
-     * Abstract method: calculate salary
-     * Each subclass provides its own implementation.
+     * Total salary: base salary plus the automatic bonus of the current BonusPolicy
+     * The value is cached and recomputed only after the base salary, the
+     * department or the policy in force has changed.
+     */
+    public double calculateSalary() {
+        BonusPolicy policy = BonusPolicy.current();
+        TotalSalary cached = totalSalary;
+        if (cached == null || !cached.isFor(policy, salary, department)) {
+            cached = new TotalSalary(policy, salary, department, policy.totalSalary(this));
+            totalSalary = cached;
+        }
+        return cached.value;
+    }
+
+    /**
+     * Cached total salary together with the inputs it was computed from
+     * Immutable, so readers on other threads never see a half-updated value.
      */
-    public abstract double calculateSalary();
+    private static final class TotalSalary {
+        final BonusPolicy policy;
+        final double salary;
+        final String department;
+        final double value;
+
+        TotalSalary(BonusPolicy policy, double salary, String department, double value) {
+            this.policy = policy;
+            this.salary = salary;
+            this.department = department;
+            this.value = value;
+        }
+
+        boolean isFor(BonusPolicy policy, double salary, String department) {
+            return this.policy == policy && this.salary == salary && this.department == department;
+        }
+    }
 
     // ---------------- Getters and Setters ----------------
     public String getId() { return id; }
@@ -38,14 +71,42 @@ public abstract class Employee {
     public void setName(String name) { this.name = name; }
 
     public String getDepartment() { return department; }
-    public void setDepartment(String department) { this.department = department; }
+    public void setDepartment(String department) {
+        this.department = department;
+        totalSalary = null;
+    }
 
     public double getSalary() { return salary; }
-    public void setSalary(double salary) { this.salary = salary; }
+    public void setSalary(double salary) {
+        this.salary = salary;
+        totalSalary = null;
+    }
 
     public int getPerformanceRating() { return performanceRating; }
     public void setPerformanceRating(int performanceRating) { this.performanceRating = performanceRating; }
 
+    /**
+     * Create the correct Employee subclass for a type name
+     * Returns null when the type is not Manager, Intern or Regular.
+     */
+    public static Employee create(String type, String id, String name, String department,
+                                  double salary, int performanceRating) {
+        return switch (type) {
+            case "Manager" -> new Manager(id, name, department, salary, performanceRating);
+            case "Intern" -> new Intern(id, name, department, salary, performanceRating);
+            case "Regular" -> new Regular(id, name, department, salary, performanceRating);
+            default -> null;
+        };
+    }
+
+    /**
+     * Detached copy of this employee with the same type and field values
+     * Used to remember the state of an employee before it is updated.
+     */
+    public Employee copy() {
+        return create(getClass().getSimpleName(), id, name, department, salary, performanceRating);
+    }
+
     /**
      * Convert employee details to string for display
      */
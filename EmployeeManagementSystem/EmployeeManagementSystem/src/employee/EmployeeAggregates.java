@@ -0,0 +1,308 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Employee Aggregates
+ * Materialized per-department and per-type statistics (headcount, payroll sums,
+ * rating histogram, salary range, salary percentile sketches). They are patched
+ * from repository events, so reading them never scans the roster or calls
+ * calculateSalary().
+ * Money is summed in whole cents to keep repeated add/remove exact.
+ * A {@link Builder} can collect the same statistics while a file is loading, so
+ * reports are ready right after the load without a second pass.
+ */
+public class EmployeeAggregates implements EmployeeRepository.ChangeListener {
+
+    /** Below this many employees a rebuild runs on one thread */
+    private static final int PARALLEL_REBUILD_THRESHOLD = 10_000;
+
+    /** A change touching more than 1/REBUILD_FRACTION of the employees rebuilds instead of patching */
+    private static final int REBUILD_FRACTION = 8;
+
+    /**
+     * Statistics for one group of employees (a department or an employee type)
+     */
+    public static class GroupStats {
+        private final String name;
+        private int headcount;
+        private long baseSalaryCents;
+        private long totalSalaryCents;
+        private final int[] ratingHistogram = new int[6]; // Index = rating 1-5, 0 = out of range
+        private long ratingSum;
+        // Salary -> number of employees earning it, so min/max survive deletes
+        private final TreeMap<Long, Integer> baseSalaries = new TreeMap<>();
+        private final TreeMap<Long, Integer> totalSalaries = new TreeMap<>();
+        private final SalarySketch baseSketch = new SalarySketch();
+        private final SalarySketch totalSketch = new SalarySketch();
+
+        GroupStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+        public int getHeadcount() { return headcount; }
+        public double getBaseSalarySum() { return baseSalaryCents / 100.0; }
+        public double getTotalSalarySum() { return totalSalaryCents / 100.0; }
+        public double getAverageRating() { return headcount == 0 ? 0.0 : (double) ratingSum / headcount; }
+        public double getAverageTotalSalary() { return headcount == 0 ? 0.0 : totalSalaryCents / 100.0 / headcount; }
+
+        /**
+         * Number of employees with a rating (1-5)
+         */
+        public int getRatingCount(int rating) {
+            return rating >= 1 && rating <= 5 ? ratingHistogram[rating] : 0;
+        }
+
+        public double getMinBaseSalary() { return baseSalaries.isEmpty() ? 0.0 : baseSalaries.firstKey() / 100.0; }
+        public double getMaxBaseSalary() { return baseSalaries.isEmpty() ? 0.0 : baseSalaries.lastKey() / 100.0; }
+        public double getMinTotalSalary() { return totalSalaries.isEmpty() ? 0.0 : totalSalaries.firstKey() / 100.0; }
+        public double getMaxTotalSalary() { return totalSalaries.isEmpty() ? 0.0 : totalSalaries.lastKey() / 100.0; }
+
+        /** Percentile sketch over getSalary() */
+        public SalarySketch getBaseSalarySketch() { return baseSketch; }
+        /** Percentile sketch over calculateSalary() */
+        public SalarySketch getTotalSalarySketch() { return totalSketch; }
+
+        private void add(Employee emp) {
+            long base = Money.toCents(emp.getSalary());
+            long total = Money.toCents(emp.calculateSalary());
+            headcount++;
+            baseSalaryCents += base;
+            totalSalaryCents += total;
+            ratingSum += emp.getPerformanceRating();
+            ratingHistogram[ratingSlot(emp.getPerformanceRating())]++;
+            baseSalaries.merge(base, 1, Integer::sum);
+            totalSalaries.merge(total, 1, Integer::sum);
+            baseSketch.update(emp.getSalary());
+            totalSketch.update(emp.calculateSalary());
+        }
+
+        private void remove(Employee emp) {
+            long base = Money.toCents(emp.getSalary());
+            long total = Money.toCents(emp.calculateSalary());
+            headcount--;
+            baseSalaryCents -= base;
+            totalSalaryCents -= total;
+            ratingSum -= emp.getPerformanceRating();
+            ratingHistogram[ratingSlot(emp.getPerformanceRating())]--;
+            decrement(baseSalaries, base);
+            decrement(totalSalaries, total);
+            baseSketch.remove(emp.getSalary());
+            totalSketch.remove(emp.calculateSalary());
+        }
+
+        private void merge(GroupStats other) {
+            headcount += other.headcount;
+            baseSalaryCents += other.baseSalaryCents;
+            totalSalaryCents += other.totalSalaryCents;
+            ratingSum += other.ratingSum;
+            for (int i = 0; i < ratingHistogram.length; i++) ratingHistogram[i] += other.ratingHistogram[i];
+            other.baseSalaries.forEach((salary, count) -> baseSalaries.merge(salary, count, Integer::sum));
+            other.totalSalaries.forEach((salary, count) -> totalSalaries.merge(salary, count, Integer::sum));
+            baseSketch.merge(other.baseSketch);
+            totalSketch.merge(other.totalSketch);
+        }
+
+        private static int ratingSlot(int rating) {
+            return rating >= 1 && rating <= 5 ? rating : 0;
+        }
+
+        private static void decrement(TreeMap<Long, Integer> counts, long key) {
+            counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Collects aggregates outside the repository, e.g. while a file is parsed.
+     * Builders of different partitions can be merged before being adopted.
+     */
+    public static class Builder implements Consumer<Employee> {
+        private final EmployeeAggregates result = new EmployeeAggregates(null);
+
+        @Override
+        public void accept(Employee emp) {
+            result.add(emp);
+        }
+
+        /**
+         * Fold the statistics of another partition into this builder
+         */
+        public Builder merge(Builder other) {
+            mergeGroups(result.byDepartment, other.result.byDepartment);
+            mergeGroups(result.byType, other.result.byType);
+            result.overall.merge(other.result.overall);
+            return this;
+        }
+
+        private static void mergeGroups(Map<String, GroupStats> into, Map<String, GroupStats> from) {
+            for (Map.Entry<String, GroupStats> entry : from.entrySet()) {
+                into.computeIfAbsent(entry.getKey(), key -> new GroupStats(entry.getValue().name))
+                    .merge(entry.getValue());
+            }
+        }
+    }
+
+    private final EmployeeRepository repository;
+    // Keyed by lowercase name so "IT" and "it" are one department
+    private final Map<String, GroupStats> byDepartment = new HashMap<>();
+    private final Map<String, GroupStats> byType = new HashMap<>();
+    private GroupStats overall = new GroupStats("All");
+    private boolean adopted; // Next reload already has its statistics
+
+    public EmployeeAggregates(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Statistics per department, sorted by department name
+     */
+    public List<GroupStats> getDepartments() {
+        return sorted(byDepartment);
+    }
+
+    /**
+     * Statistics per employee type, sorted by type name
+     */
+    public List<GroupStats> getTypes() {
+        return sorted(byType);
+    }
+
+    /**
+     * Statistics for one department, or null if it has no employees
+     */
+    public GroupStats getDepartment(String department) {
+        return department == null ? null : byDepartment.get(department.toLowerCase());
+    }
+
+    /**
+     * Statistics over all employees
+     */
+    public GroupStats getOverall() { return overall; }
+
+    /**
+     * Use statistics collected during a load instead of rescanning on the
+     * next reload. Only valid if the builder saw exactly the loaded employees.
+     */
+    void adopt(Builder builder) {
+        byDepartment.clear();
+        byDepartment.putAll(builder.result.byDepartment);
+        byType.clear();
+        byType.putAll(builder.result.byType);
+        overall = builder.result.overall;
+        adopted = true;
+    }
+
+    @Override
+    public void employeesChanged(EmployeeRepository.ChangeEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                for (Employee emp : event.getEmployees()) add(emp);
+                break;
+            case REMOVED:
+                if (isBulk(event)) {
+                    adopt(rebuild(repository.getEmployees()));
+                    adopted = false;
+                    break;
+                }
+                for (Employee emp : event.getEmployees()) remove(emp);
+                break;
+            case UPDATED:
+                if (isBulk(event)) {
+                    adopt(rebuild(repository.getEmployees()));
+                    adopted = false;
+                    break;
+                }
+                for (int i = 0; i < event.getEmployees().size(); i++) {
+                    remove(event.getBefore().get(i));
+                    add(event.getEmployees().get(i));
+                }
+                break;
+            case RELOADED:
+                if (adopted) {
+                    adopted = false;
+                } else {
+                    adopt(rebuild(repository.getEmployees()));
+                    adopted = false;
+                }
+                break;
+            case REPRICED:
+                // Every total salary may have changed; the before values are gone
+                adopt(rebuild(repository.getEmployees()));
+                adopted = false;
+                break;
+            case REORDERED:
+                // Aggregates do not depend on display order
+                break;
+        }
+    }
+
+    /**
+     * Whether a change is large enough that a (parallel) rebuild beats patching
+     * one employee at a time
+     */
+    private boolean isBulk(EmployeeRepository.ChangeEvent event) {
+        int changed = event.getEmployees().size();
+        return changed >= PARALLEL_REBUILD_THRESHOLD && changed * REBUILD_FRACTION > repository.size();
+    }
+
+    /**
+     * Build statistics for a roster, one builder per partition merged at the end
+     */
+    private static Builder rebuild(List<Employee> employees) {
+        if (employees.size() < PARALLEL_REBUILD_THRESHOLD) {
+            Builder builder = new Builder();
+            employees.forEach(builder);
+            return builder;
+        }
+        Employee[] snapshot = employees.toArray(new Employee[0]);
+        int partitions = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int chunkSize = (snapshot.length + partitions - 1) / partitions;
+        return IntStream.range(0, partitions).parallel()
+            .mapToObj(p -> {
+                Builder builder = new Builder();
+                int end = Math.min(snapshot.length, (p + 1) * chunkSize);
+                for (int i = p * chunkSize; i < end; i++) builder.accept(snapshot[i]);
+                return builder;
+            })
+            .reduce(Builder::merge)
+            .orElseGet(Builder::new);
+    }
+
+    private void add(Employee emp) {
+        group(byDepartment, emp.getDepartment()).add(emp);
+        group(byType, emp.getClass().getSimpleName()).add(emp);
+        overall.add(emp);
+    }
+
+    private void remove(Employee emp) {
+        release(byDepartment, emp.getDepartment(), emp);
+        release(byType, emp.getClass().getSimpleName(), emp);
+        overall.remove(emp);
+    }
+
+    private static GroupStats group(Map<String, GroupStats> groups, String name) {
+        return groups.computeIfAbsent(name.toLowerCase(), key -> new GroupStats(name));
+    }
+
+    private static void release(Map<String, GroupStats> groups, String name, Employee emp) {
+        String key = name.toLowerCase();
+        GroupStats stats = groups.get(key);
+        if (stats == null) return;
+        stats.remove(emp);
+        if (stats.headcount == 0) groups.remove(key);
+    }
+
+    private static List<GroupStats> sorted(Map<String, GroupStats> groups) {
+        List<GroupStats> list = new ArrayList<>(groups.values());
+        list.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.name, b.name));
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,522 @@
+package employee;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Employee API Server
+ * HTTP/JSON access to an EmployeeRepository, e.g. the one the GUI or CUI works on.
+ *
+ *   GET    /employees[?limit=N]                  all employees
+ *   GET    /employees/{id}                       one employee
+ *   POST   /employees                            add: {"type","id","name","department","salary","rating"}
+ *   PUT    /employees/{id}                       change some of name, department, salary, rating
+ *   DELETE /employees/{id}
+ *   GET    /search/linear?criteria=NAME&value=ann
+ *   GET    /search/range?criteria=SALARY&min=40000&max=60000
+ *   GET    /search/fuzzy?term=jon&distance=2
+ *   GET    /search/advanced?DEPARTMENT=IT&PERFORMANCE_RATING=5
+ *   GET    /aggregates                           overall, per department and per type
+ *
+ * Lists are streamed as a JSON array while they are read from a
+ * {@link QueryCursor}, so a large result is never held as one response in
+ * memory; searches accept ?limit=N as well. New employees and changes are
+ * checked with the same rules as the import. Errors are returned as
+ * {"error": "..."} with a 4xx status.
+ *
+ * Each request runs on its own virtual thread when the JDK has them (Java 21
+ * and later), otherwise on a cached pool of platform threads.
+ */
+public class EmployeeApiServer {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int PAGE_SIZE = 1024;
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_FUZZY_DISTANCE = 2;
+
+    private final EmployeeRepository repository;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public EmployeeApiServer(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Start listening on a port (0 picks a free one)
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/employees", handler(this::handleEmployees));
+        server.createContext("/search/", handler(this::handleSearch));
+        server.createContext("/aggregates", handler(this::handleAggregates));
+        executor = newThreadPerTaskExecutor("api-request");
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop accepting requests, giving running ones up to a second to finish
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * One virtual thread per task where available, else a cached pool of daemon threads
+     */
+    static ExecutorService newThreadPerTaskExecutor(String threadName) {
+        try {
+            // Looked up by name so the code still builds and runs on JDKs without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadName + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // ---------------- Routes ----------------
+
+    private void handleEmployees(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String id = path.startsWith("/employees/") ? decode(path.substring("/employees/".length())) : null;
+        if (id == null && !path.equals("/employees")) throw new NotFound("No such resource: " + path);
+        Map<String, String> params = queryParameters(exchange);
+
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id == null) {
+                    QueryCursor cursor = QueryCursor.open(repository, null);
+                    sendEmployees(exchange, cursor::next, limit(params));
+                } else {
+                    sendEmployee(exchange, 200, requireEmployee(id));
+                }
+            }
+            case "POST" -> {
+                if (id != null) throw new MethodNotAllowed("POST");
+                Map<String, String> body = parseObject(readBody(exchange));
+                String[] fields = {
+                    body.get("type"), body.get("id"), body.get("name"), body.get("department"),
+                    body.get("salary"), body.get("rating")
+                };
+                for (int i = 0; i < fields.length; i++) {
+                    if (fields[i] == null) fields[i] = "";
+                }
+                Employee emp = validated(fields);
+                if (!repository.add(emp)) throw new Conflict("Employee ID already exists: " + emp.getId());
+                exchange.getResponseHeaders().set("Location", "/employees/" + emp.getId());
+                sendEmployee(exchange, 201, emp);
+            }
+            case "PUT" -> {
+                if (id == null) throw new MethodNotAllowed("PUT");
+                Employee emp = requireEmployee(id);
+                Map<String, String> body = parseObject(readBody(exchange));
+                Consumer<Employee> changes = changesOf(emp, body);
+                repository.write(() -> {
+                    // Another request may have deleted it meanwhile
+                    if (repository.findById(id) != emp) throw new NotFound("Employee not found: " + id);
+                    repository.update(emp, changes);
+                });
+                sendEmployee(exchange, 200, emp);
+            }
+            case "DELETE" -> {
+                if (id == null) throw new MethodNotAllowed("DELETE");
+                if (!repository.remove(requireEmployee(id))) throw new NotFound("Employee not found: " + id);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> throw new MethodNotAllowed(exchange.getRequestMethod());
+        }
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) throw new MethodNotAllowed(exchange.getRequestMethod());
+        Map<String, String> params = queryParameters(exchange);
+        String kind = exchange.getRequestURI().getPath().substring("/search/".length());
+        switch (kind) {
+            case "linear" -> sendQuery(exchange, EmployeeQuery.matching(criteria(params.get("criteria")),
+                                                                        required(params, "value")), params);
+            case "range" -> {
+                SortingSearchingAlgorithms.SortCriteria criteria = criteria(params.get("criteria"));
+                if (!SortingSearchingAlgorithms.isNumeric(criteria)) {
+                    throw new IllegalArgumentException("Range search needs a numeric criteria, not " + criteria);
+                }
+                double min = Double.parseDouble(params.getOrDefault("min", "-Infinity"));
+                double max = Double.parseDouble(params.getOrDefault("max", "Infinity"));
+                sendQuery(exchange, EmployeeQuery.between(criteria, min, max), params);
+            }
+            case "fuzzy" -> {
+                String term = required(params, "term");
+                int distance = Integer.parseInt(params.getOrDefault("distance", String.valueOf(DEFAULT_FUZZY_DISTANCE)));
+                // Edit distance cannot use an index, so this one scans a snapshot
+                List<Employee> matches = SortingSearchingAlgorithms.fuzzySearch(repository.snapshot(), term, distance);
+                int[] offset = {0};
+                sendEmployees(exchange, pageSize -> {
+                    int from = offset[0];
+                    offset[0] = Math.min(matches.size(), from + pageSize);
+                    return matches.subList(from, offset[0]);
+                }, limit(params));
+            }
+            case "advanced" -> {
+                Map<SortingSearchingAlgorithms.SortCriteria, String> terms = new LinkedHashMap<>();
+                for (Map.Entry<String, String> param : params.entrySet()) {
+                    if (param.getKey().equals("limit") || param.getValue().isBlank()) continue;
+                    terms.put(criteria(param.getKey()), param.getValue());
+                }
+                if (terms.isEmpty()) throw new IllegalArgumentException("Give at least one CRITERIA=value");
+                sendQuery(exchange, SortingSearchingAlgorithms.toQuery(terms), params);
+            }
+            default -> throw new NotFound("Unknown search: " + kind);
+        }
+    }
+
+    private void handleAggregates(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) throw new MethodNotAllowed(exchange.getRequestMethod());
+        String json = repository.read(() -> {
+            EmployeeAggregates aggregates = repository.getAggregates();
+            StringBuilder sb = new StringBuilder(1024);
+            sb.append("{\"overall\":");
+            appendGroup(sb, aggregates.getOverall());
+            appendGroups(sb.append(",\"departments\":"), aggregates.getDepartments());
+            appendGroups(sb.append(",\"types\":"), aggregates.getTypes());
+            return sb.append('}').toString();
+        });
+        send(exchange, 200, json);
+    }
+
+    private static void appendGroups(StringBuilder sb, List<EmployeeAggregates.GroupStats> groups) {
+        sb.append('[');
+        for (int i = 0; i < groups.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendGroup(sb, groups.get(i));
+        }
+        sb.append(']');
+    }
+
+    private static void appendGroup(StringBuilder sb, EmployeeAggregates.GroupStats group) {
+        sb.append("{\"name\":");
+        QueryExporter.appendJson(sb, group.getName());
+        sb.append(",\"headcount\":").append(group.getHeadcount())
+          .append(",\"baseSalarySum\":").append(group.getBaseSalarySum())
+          .append(",\"totalSalarySum\":").append(group.getTotalSalarySum())
+          .append(",\"averageRating\":").append(group.getAverageRating())
+          .append(",\"averageTotalSalary\":").append(group.getAverageTotalSalary())
+          .append(",\"minBaseSalary\":").append(group.getMinBaseSalary())
+          .append(",\"maxBaseSalary\":").append(group.getMaxBaseSalary());
+        if (group.getHeadcount() > 0) {
+            double[] p = group.getTotalSalarySketch().quantiles(0.5, 0.9, 0.99);
+            sb.append(",\"totalSalaryP50\":").append(p[0])
+              .append(",\"totalSalaryP90\":").append(p[1])
+              .append(",\"totalSalaryP99\":").append(p[2]);
+        }
+        sb.append('}');
+    }
+
+    // ---------------- Employees ----------------
+
+    private Employee requireEmployee(String id) {
+        Employee emp = repository.findById(id);
+        if (emp == null) throw new NotFound("Employee not found: " + id);
+        return emp;
+    }
+
+    /**
+     * New employee from type, ID, name, department, salary and rating
+     */
+    private static Employee validated(String[] fields) {
+        for (String field : fields) {
+            if (field.indexOf(',') >= 0 || field.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Fields cannot contain commas or line breaks: " + field);
+            }
+        }
+        String reason = ImportPipeline.validate(fields);
+        if (reason != null) throw new IllegalArgumentException(reason);
+        Employee emp = FileHandler.parse(String.join(",", fields));
+        if (emp == null) throw new IllegalArgumentException("Unknown type " + fields[0]);
+        return emp;
+    }
+
+    /**
+     * Changes given in a PUT body, checked against the current values
+     */
+    private static Consumer<Employee> changesOf(Employee emp, Map<String, String> body) {
+        for (String field : body.keySet()) {
+            if (!List.of("name", "department", "salary", "rating").contains(field)) {
+                throw new IllegalArgumentException("Cannot change " + field);
+            }
+        }
+        String name = body.getOrDefault("name", emp.getName());
+        String department = body.getOrDefault("department", emp.getDepartment());
+        String salary = body.getOrDefault("salary", String.valueOf(emp.getSalary()));
+        String rating = body.getOrDefault("rating", String.valueOf(emp.getPerformanceRating()));
+        validated(new String[] {emp.getClass().getSimpleName(), emp.getId(), name, department, salary, rating});
+        double newSalary = Double.parseDouble(salary);
+        int newRating = Integer.parseInt(rating);
+        return e -> {
+            e.setName(name);
+            e.setDepartment(department);
+            e.setSalary(newSalary);
+            e.setPerformanceRating(newRating);
+        };
+    }
+
+    // ---------------- Responses ----------------
+
+    /**
+     * Page source for streamed lists: the next page of at most pageSize, empty at the end
+     */
+    private interface Pages {
+        List<Employee> next(int pageSize);
+    }
+
+    private void sendQuery(HttpExchange exchange, EmployeeQuery query, Map<String, String> params) throws IOException {
+        QueryCursor cursor = QueryCursor.open(repository, query);
+        sendEmployees(exchange, cursor::next, limit(params));
+    }
+
+    /**
+     * Stream a JSON array of employees page by page (chunked transfer encoding)
+     */
+    private static void sendEmployees(HttpExchange exchange, Pages pages, int limit) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                                                                    StandardCharsets.UTF_8), 1 << 16)) {
+            StringBuilder json = new StringBuilder(256);
+            out.write('[');
+            int written = 0;
+            List<Employee> page;
+            while (written < limit && !(page = pages.next(Math.min(PAGE_SIZE, limit - written))).isEmpty()) {
+                for (Employee emp : page) {
+                    json.setLength(0);
+                    if (written++ > 0) json.append(',');
+                    QueryExporter.appendJson(json, emp);
+                    out.append(json);
+                }
+            }
+            out.write(']');
+        }
+    }
+
+    private static void sendEmployee(HttpExchange exchange, int status, Employee emp) throws IOException {
+        StringBuilder json = new StringBuilder(256);
+        QueryExporter.appendJson(json, emp);
+        send(exchange, status, json.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ---------------- Errors ----------------
+
+    /** Request for something that does not exist (404) */
+    private static class NotFound extends RuntimeException {
+        NotFound(String message) { super(message); }
+    }
+
+    /** Method not supported on this path (405) */
+    private static class MethodNotAllowed extends RuntimeException {
+        MethodNotAllowed(String method) { super("Method not allowed: " + method); }
+    }
+
+    /** Request that clashes with the current state (409) */
+    private static class Conflict extends RuntimeException {
+        Conflict(String message) { super(message); }
+    }
+
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Turn exceptions into JSON error responses
+     */
+    private static HttpHandler handler(Route route) {
+        return exchange -> {
+            try (exchange) {
+                try {
+                    route.handle(exchange);
+                } catch (NotFound e) {
+                    sendError(exchange, 404, e);
+                } catch (MethodNotAllowed e) {
+                    sendError(exchange, 405, e);
+                } catch (Conflict e) {
+                    sendError(exchange, 409, e);
+                } catch (IllegalArgumentException e) {
+                    sendError(exchange, 400, e);
+                } catch (RuntimeException e) {
+                    sendError(exchange, 500, e);
+                }
+            }
+        };
+    }
+
+    private static void sendError(HttpExchange exchange, int status, Exception e) throws IOException {
+        if (exchange.getResponseCode() != -1) return; // A streamed response already started
+        StringBuilder json = new StringBuilder("{\"error\":");
+        QueryExporter.appendJson(json, e.getMessage() == null ? e.toString() : e.getMessage());
+        send(exchange, status, json.append('}').toString());
+    }
+
+    // ---------------- Request parsing ----------------
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            if (equals < 0) params.put(decode(pair), "");
+            else params.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+        }
+        return params;
+    }
+
+    private static String decode(String text) {
+        return URLDecoder.decode(text, StandardCharsets.UTF_8);
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing parameter " + name);
+        return value;
+    }
+
+    private static int limit(Map<String, String> params) {
+        String limit = params.get("limit");
+        if (limit == null) return Integer.MAX_VALUE;
+        int value = Integer.parseInt(limit);
+        if (value < 0) throw new IllegalArgumentException("limit cannot be negative");
+        return value;
+    }
+
+    private static SortingSearchingAlgorithms.SortCriteria criteria(String name) {
+        if (name == null) throw new IllegalArgumentException("Missing parameter criteria");
+        return SortingSearchingAlgorithms.SortCriteria.valueOf(name.trim().toUpperCase());
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse a flat JSON object; values are returned as text
+     * Nested objects and arrays are not accepted.
+     */
+    static Map<String, String> parseObject(String json) {
+        Map<String, String> values = new LinkedHashMap<>();
+        int[] at = {skipSpace(json, 0)};
+        expect(json, at, '{');
+        if (peek(json, at) == '}') {
+            at[0]++;
+            return values;
+        }
+        while (true) {
+            String key = parseString(json, at);
+            expect(json, at, ':');
+            char c = peek(json, at);
+            String value;
+            if (c == '"') {
+                value = parseString(json, at);
+            } else {
+                int start = at[0];
+                while (at[0] < json.length() && ",} \t\r\n".indexOf(json.charAt(at[0])) < 0) at[0]++;
+                value = json.substring(start, at[0]);
+                if (value.isEmpty() || value.charAt(0) == '{' || value.charAt(0) == '[') {
+                    throw new IllegalArgumentException("Expected a string or number for " + key);
+                }
+                at[0] = skipSpace(json, at[0]);
+            }
+            if (!"null".equals(value) || c == '"') values.put(key, value);
+            if (peek(json, at) == ',') {
+                at[0]++;
+                continue;
+            }
+            expect(json, at, '}');
+            if (skipSpace(json, at[0]) != json.length()) throw new IllegalArgumentException("Text after the JSON object");
+            return values;
+        }
+    }
+
+    private static String parseString(String json, int[] at) {
+        expect(json, at, '"');
+        StringBuilder sb = new StringBuilder();
+        while (at[0] < json.length()) {
+            char c = json.charAt(at[0]++);
+            if (c == '"') {
+                at[0] = skipSpace(json, at[0]);
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (at[0] >= json.length()) break;
+            char escaped = json.charAt(at[0]++);
+            switch (escaped) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (at[0] + 4 > json.length()) throw new IllegalArgumentException("Bad \\u escape in JSON");
+                    sb.append((char) Integer.parseInt(json.substring(at[0], at[0] + 4), 16));
+                    at[0] += 4;
+                }
+                default -> sb.append(escaped); // \" \\ \/
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string in JSON");
+    }
+
+    private static void expect(String json, int[] at, char c) {
+        if (peek(json, at) != c) throw new IllegalArgumentException("Expected '" + c + "' at " + at[0] + " in JSON");
+        at[0] = skipSpace(json, at[0] + 1);
+    }
+
+    private static char peek(String json, int[] at) {
+        at[0] = skipSpace(json, at[0]);
+        return at[0] < json.length() ? json.charAt(at[0]) : 0;
+    }
+
+    private static int skipSpace(String json, int at) {
+        while (at < json.length() && Character.isWhitespace(json.charAt(at))) at++;
+        return at;
+    }
+}
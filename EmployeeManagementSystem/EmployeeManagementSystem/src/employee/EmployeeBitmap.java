@@ -0,0 +1,380 @@
+package employee;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Employee Bitmap
+ * Compressed set of employee ordinals in the style of a Roaring bitmap.
+ * Ordinals are split into 65536-wide chunks by their high 16 bits; each chunk
+ * is stored as a sorted char array while sparse (up to 4096 values) and as a
+ * 1024-word bitmap once dense. AND/OR work chunk by chunk and cardinality is
+ * kept per chunk, so counting is a sum instead of a scan.
+ */
+public class EmployeeBitmap {
+
+    /** Above this many values a chunk switches from array to bitmap form */
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    /**
+     * One 65536-value chunk: either a sorted array or a bitmap
+     */
+    private static final class Chunk {
+        char[] values;   // Sorted values, used while cardinality <= ARRAY_LIMIT
+        long[] words;    // Bitmap, used once dense
+        int cardinality;
+
+        static Chunk ofArray(char[] values, int cardinality) {
+            Chunk chunk = new Chunk();
+            chunk.values = values;
+            chunk.cardinality = cardinality;
+            return chunk;
+        }
+
+        static Chunk ofWords(long[] words) {
+            Chunk chunk = new Chunk();
+            chunk.words = words;
+            for (long word : words) chunk.cardinality += Long.bitCount(word);
+            return chunk;
+        }
+
+        /**
+         * Smallest value at least from (0..65535), or -1
+         */
+        int next(int from) {
+            if (words != null) {
+                int w = from >>> 6;
+                long word = words[w] & (-1L << from);
+                while (word == 0) {
+                    if (++w == BITMAP_WORDS) return -1;
+                    word = words[w];
+                }
+                return w * 64 + Long.numberOfTrailingZeros(word);
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) index = -index - 1;
+            return index < cardinality ? values[index] : -1;
+        }
+
+        boolean contains(char low) {
+            if (words != null) return (words[low >>> 6] & (1L << low)) != 0;
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        boolean add(char low) {
+            if (words != null) {
+                long before = words[low >>> 6];
+                long after = before | (1L << low);
+                words[low >>> 6] = after;
+                if (before == after) return false;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) return false;
+            if (cardinality == ARRAY_LIMIT) {
+                toWords();
+                return add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, values.length * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char low) {
+            if (words != null) {
+                long before = words[low >>> 6];
+                long after = before & ~(1L << low);
+                if (before == after) return false;
+                words[low >>> 6] = after;
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT) toArray();
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index < 0) return false;
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        void toWords() {
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                char value = values[i];
+                bitmap[value >>> 6] |= 1L << value;
+            }
+            words = bitmap;
+            values = null;
+        }
+
+        void toArray() {
+            char[] array = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array[n++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = array;
+            words = null;
+        }
+
+        long[] asWords() {
+            if (words != null) return words;
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                char value = values[i];
+                bitmap[value >>> 6] |= 1L << value;
+            }
+            return bitmap;
+        }
+
+        Chunk copy() {
+            Chunk chunk = new Chunk();
+            chunk.cardinality = cardinality;
+            chunk.values = values == null ? null : values.clone();
+            chunk.words = words == null ? null : words.clone();
+            return chunk;
+        }
+
+        static Chunk and(Chunk a, Chunk b) {
+            if (a.words == null || b.words == null) {
+                // Probe the array side against the other chunk
+                Chunk small = a.words == null ? a : b;
+                Chunk other = small == a ? b : a;
+                char[] result = new char[small.cardinality];
+                int n = 0;
+                for (int i = 0; i < small.cardinality; i++) {
+                    if (other.contains(small.values[i])) result[n++] = small.values[i];
+                }
+                return Chunk.ofArray(result, n);
+            }
+            long[] result = new long[BITMAP_WORDS];
+            for (int w = 0; w < BITMAP_WORDS; w++) result[w] = a.words[w] & b.words[w];
+            Chunk chunk = Chunk.ofWords(result);
+            if (chunk.cardinality <= ARRAY_LIMIT) chunk.toArray();
+            return chunk;
+        }
+
+        static int andCardinality(Chunk a, Chunk b) {
+            if (a.words != null && b.words != null) {
+                int count = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) count += Long.bitCount(a.words[w] & b.words[w]);
+                return count;
+            }
+            Chunk small = a.words == null ? a : b;
+            Chunk other = small == a ? b : a;
+            int count = 0;
+            for (int i = 0; i < small.cardinality; i++) {
+                if (other.contains(small.values[i])) count++;
+            }
+            return count;
+        }
+
+        static Chunk or(Chunk a, Chunk b) {
+            if (a.words == null && b.words == null && a.cardinality + b.cardinality <= ARRAY_LIMIT) {
+                // Merge two sorted arrays
+                char[] result = new char[a.cardinality + b.cardinality];
+                int i = 0, j = 0, n = 0;
+                while (i < a.cardinality && j < b.cardinality) {
+                    char x = a.values[i], y = b.values[j];
+                    if (x < y) { result[n++] = x; i++; }
+                    else if (y < x) { result[n++] = y; j++; }
+                    else { result[n++] = x; i++; j++; }
+                }
+                while (i < a.cardinality) result[n++] = a.values[i++];
+                while (j < b.cardinality) result[n++] = b.values[j++];
+                return Chunk.ofArray(result, n);
+            }
+            long[] left = a.asWords(), right = b.asWords();
+            long[] result = new long[BITMAP_WORDS];
+            for (int w = 0; w < BITMAP_WORDS; w++) result[w] = left[w] | right[w];
+            Chunk chunk = Chunk.ofWords(result);
+            if (chunk.cardinality <= ARRAY_LIMIT) chunk.toArray();
+            return chunk;
+        }
+    }
+
+    // ---------------- Single values ----------------
+
+    public boolean contains(int ordinal) {
+        int index = chunkIndex((char) (ordinal >>> 16));
+        return index >= 0 && chunks[index].contains((char) ordinal);
+    }
+
+    /**
+     * Smallest ordinal in the set that is at least from, or -1 if there is none
+     * Lets callers walk the set a piece at a time and resume where they stopped.
+     */
+    public int nextSetBit(int from) {
+        from = Math.max(0, from);
+        int index = chunkIndex((char) (from >>> 16));
+        int low = from & 0xFFFF;
+        if (index < 0) {
+            index = -index - 1;
+            low = 0;
+        }
+        for (; index < size; index++, low = 0) {
+            int value = chunks[index].next(low);
+            if (value >= 0) return (keys[index] << 16) | value;
+        }
+        return -1;
+    }
+
+    public void add(int ordinal) {
+        char high = (char) (ordinal >>> 16);
+        int index = chunkIndex(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, Chunk.ofArray(new char[4], 0));
+        }
+        chunks[index].add((char) ordinal);
+    }
+
+    public void remove(int ordinal) {
+        int index = chunkIndex((char) (ordinal >>> 16));
+        if (index < 0) return;
+        Chunk chunk = chunks[index];
+        if (chunk.remove((char) ordinal) && chunk.cardinality == 0) {
+            removeChunk(index);
+        }
+    }
+
+    // ---------------- Whole-set operations ----------------
+
+    /**
+     * Number of ordinals in the set (sum of per-chunk counts)
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += chunks[i].cardinality;
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Intersection of two bitmaps as a new bitmap
+     */
+    public static EmployeeBitmap and(EmployeeBitmap a, EmployeeBitmap b) {
+        EmployeeBitmap result = new EmployeeBitmap();
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (b.keys[j] < a.keys[i]) j++;
+            else {
+                Chunk chunk = Chunk.and(a.chunks[i], b.chunks[j]);
+                if (chunk.cardinality > 0) result.insertChunk(result.size, a.keys[i], chunk);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Union of two bitmaps as a new bitmap
+     */
+    public static EmployeeBitmap or(EmployeeBitmap a, EmployeeBitmap b) {
+        EmployeeBitmap result = new EmployeeBitmap();
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.insertChunk(result.size, a.keys[i], a.chunks[i].copy());
+                i++;
+            } else if (i >= a.size || b.keys[j] < a.keys[i]) {
+                result.insertChunk(result.size, b.keys[j], b.chunks[j].copy());
+                j++;
+            } else {
+                result.insertChunk(result.size, a.keys[i], Chunk.or(a.chunks[i], b.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of ordinals in both bitmaps, without building the intersection
+     */
+    public static int andCardinality(EmployeeBitmap a, EmployeeBitmap b) {
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (b.keys[j] < a.keys[i]) j++;
+            else count += Chunk.andCardinality(a.chunks[i++], b.chunks[j++]);
+        }
+        return count;
+    }
+
+    /**
+     * Visit every ordinal in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            Chunk chunk = chunks[i];
+            if (chunk.words == null) {
+                for (int v = 0; v < chunk.cardinality; v++) action.accept(base | chunk.values[v]);
+            } else {
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = chunk.words[w];
+                    while (word != 0) {
+                        action.accept(base | (w * 64 + Long.numberOfTrailingZeros(word)));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy of this bitmap
+     */
+    public EmployeeBitmap copy() {
+        EmployeeBitmap result = new EmployeeBitmap();
+        for (int i = 0; i < size; i++) result.insertChunk(i, keys[i], chunks[i].copy());
+        return result;
+    }
+
+    // ---------------- Chunk directory ----------------
+
+    private int chunkIndex(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertChunk(int index, char high, Chunk chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        keys[index] = high;
+        chunks[index] = chunk;
+        size++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        size--;
+        chunks[size] = null;
+    }
+}
@@ -0,0 +1,188 @@
+package employee;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Employee Indexes
+ * Inverted value indexes for the low-cardinality criteria (type, department,
+ * rating). Each distinct value maps to a compressed bitmap of the employee
+ * ordinals holding it, so multi-criteria filters become bitmap AND/OR and
+ * counts become popcounts.
+ * Indexes are built on first use and then maintained from repository events.
+ * Readers may build them concurrently under the repository read lock, so each
+ * is built once inside a concurrent map and safely published; maintenance
+ * runs under the write lock.
+ */
+public class EmployeeIndexes implements EmployeeRepository.ChangeListener {
+
+    /**
+     * Criteria that are worth indexing: few distinct values, many rows each
+     */
+    private static final Set<SortingSearchingAlgorithms.SortCriteria> INDEXED = Collections.unmodifiableSet(
+        EnumSet.of(SortingSearchingAlgorithms.SortCriteria.EMPLOYEE_TYPE,
+                   SortingSearchingAlgorithms.SortCriteria.DEPARTMENT,
+                   SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING));
+
+    /**
+     * Index of one criteria: lowercase value -> ordinals
+     */
+    public static class ValueIndex {
+        private final Map<String, EmployeeBitmap> postings = new HashMap<>();
+        private int rowCount;
+
+        /**
+         * Number of distinct values
+         */
+        public int distinctValues() { return postings.size(); }
+
+        /**
+         * Number of indexed rows
+         */
+        public int rowCount() { return rowCount; }
+
+        /**
+         * Ordinals of employees whose value matches a single-field query
+         * Cost is one check per distinct value, not per employee.
+         */
+        public EmployeeBitmap match(EmployeeQuery query) {
+            EmployeeBitmap result = new EmployeeBitmap();
+            for (Map.Entry<String, EmployeeBitmap> entry : postings.entrySet()) {
+                if (query.matchesKey(entry.getKey())) {
+                    result = EmployeeBitmap.or(result, entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Number of employees matching a single-field query, without building the set
+         */
+        public int count(EmployeeQuery query) {
+            int count = 0;
+            for (Map.Entry<String, EmployeeBitmap> entry : postings.entrySet()) {
+                if (query.matchesKey(entry.getKey())) {
+                    count += entry.getValue().cardinality();
+                }
+            }
+            return count;
+        }
+
+        private void add(String key, int ordinal) {
+            postings.computeIfAbsent(key, k -> new EmployeeBitmap()).add(ordinal);
+            rowCount++;
+        }
+
+        private void remove(String key, int ordinal) {
+            EmployeeBitmap bits = postings.get(key);
+            if (bits == null || !bits.contains(ordinal)) return;
+            bits.remove(ordinal);
+            rowCount--;
+            if (bits.isEmpty()) postings.remove(key);
+        }
+    }
+
+    private final EmployeeRepository repository;
+    private final Map<SortingSearchingAlgorithms.SortCriteria, ValueIndex> indexes = new ConcurrentHashMap<>();
+
+    public EmployeeIndexes(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Check whether a criteria can be served from an index
+     */
+    public static boolean isIndexed(SortingSearchingAlgorithms.SortCriteria criteria) {
+        return INDEXED.contains(criteria);
+    }
+
+    /**
+     * Get the index for a criteria, building it on first use
+     * Returns null for criteria that are not indexed.
+     */
+    public ValueIndex index(SortingSearchingAlgorithms.SortCriteria criteria) {
+        if (!isIndexed(criteria)) return null;
+        return indexes.computeIfAbsent(criteria, c -> {
+            ValueIndex index = new ValueIndex();
+            for (Employee emp : repository.getEmployees()) {
+                index.add(keyOf(emp, c), repository.ordinalOf(emp));
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Evaluate a query purely on indexes (AND/OR of value bitmaps)
+     * Returns null if any part of the query needs a field that is not indexed.
+     */
+    public EmployeeBitmap evaluate(EmployeeQuery query) {
+        return query.evaluate(this);
+    }
+
+    /**
+     * Count matching employees without materializing them
+     * Uses bitmap popcounts when the query is fully indexed, a scan otherwise.
+     */
+    public int count(EmployeeQuery query) {
+        EmployeeBitmap bitmap = evaluate(query);
+        if (bitmap != null) return bitmap.cardinality();
+
+        Predicate<Employee> predicate = query.compile();
+        int count = 0;
+        for (Employee emp : repository.getEmployees()) {
+            if (predicate.test(emp)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void employeesChanged(EmployeeRepository.ChangeEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ValueIndex> entry : indexes.entrySet()) {
+                    for (Employee emp : event.getEmployees()) {
+                        entry.getValue().add(keyOf(emp, entry.getKey()), repository.ordinalOf(emp));
+                    }
+                }
+                break;
+            case REMOVED:
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ValueIndex> entry : indexes.entrySet()) {
+                    for (Employee emp : event.getEmployees()) {
+                        entry.getValue().remove(keyOf(emp, entry.getKey()), repository.ordinalOf(emp));
+                    }
+                }
+                break;
+            case UPDATED:
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ValueIndex> entry : indexes.entrySet()) {
+                    for (int i = 0; i < event.getEmployees().size(); i++) {
+                        Employee emp = event.getEmployees().get(i);
+                        String oldKey = keyOf(event.getBefore().get(i), entry.getKey());
+                        String newKey = keyOf(emp, entry.getKey());
+                        if (oldKey.equals(newKey)) continue;
+                        int ordinal = repository.ordinalOf(emp);
+                        entry.getValue().remove(oldKey, ordinal);
+                        entry.getValue().add(newKey, ordinal);
+                    }
+                }
+                break;
+            case RELOADED:
+                indexes.clear();
+                break;
+            case REPRICED:
+                // Type, department and rating do not depend on the bonus policy
+                break;
+            case REORDERED:
+                // Ordinals do not depend on display order
+                break;
+        }
+    }
+
+    private static String keyOf(Employee emp, SortingSearchingAlgorithms.SortCriteria criteria) {
+        return SortingSearchingAlgorithms.getEmployeeValue(emp, criteria).toLowerCase();
+    }
+}
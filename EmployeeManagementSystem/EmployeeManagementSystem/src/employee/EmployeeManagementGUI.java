@@ -2,11 +2,27 @@ package employee;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableCellRenderer;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.util.LinkedList;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Employee Management GUI
@@ -14,14 +30,87 @@ import java.util.ArrayList;
  */
 public class EmployeeManagementGUI extends JFrame {
     
-    private LinkedList<Employee> employees = new LinkedList<>();
+    private final EmployeeRepository repository;
+    private final PayrollLedger ledger = openLedger();
     private JTable employeeTable;
-    private DefaultTableModel tableModel;
+    private EmployeeTableModel tableModel;
     private JLabel statusLabel;
+    private JLabel countsLabel;
+    private JPanel buttonPanel;
+    private JPanel centerPanel;
+    private DefaultTableModel dashboardModel;
+    
+    /** Quiet time after the last keystroke before the live search runs */
+    private static final int SEARCH_DELAY_MS = 150;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Timer searchTimer;
+    private Future<?> pendingSearch;
+    private long searchGeneration; // Bumped on the EDT whenever a newer search or refresh supersedes results
+    
+    private JPanel progressPanel;
+    private JProgressBar progressBar;
+    private JButton cancelTaskButton;
+    private SwingWorker<?, ?> fileTask; // Running background load or save, if any
+    
+    private final EdtMonitor edtMonitor = EdtMonitor.install();
+    private PerformanceHud performanceHud;
+    
+    // Dialogs are built on first use and reused afterwards
+    private AddEmployeeDialog addDialog;
+    private UpdateEmployeeDialog updateDialog;
+    private PerformanceDialog performanceDialog;
+    private AdvancedSearchDialog advancedSearchDialog;
+    private JDialog sortDialog;
+    private JDialog criteriaDialog;
+    private JComboBox<SortingSearchingAlgorithms.SortCriteria> criteriaDialogCombo;
+    
+    private final long launchNanos;          // System.nanoTime() when the program started
+    private boolean firstPaintReported;
     
     public EmployeeManagementGUI() {
+        this(System.nanoTime());
+    }
+    
+    /**
+     * Create and show the main window
+     * The frame is shown first; the bonus policy and sample data are loaded in a
+     * later event so they never delay the first paint.
+     */
+    public EmployeeManagementGUI(long launchNanos) {
+        this(launchNanos, new EmployeeRepository());
+    }
+    
+    /**
+     * Create and show the main window over a repository shared with others,
+     * e.g. the HTTP API
+     */
+    public EmployeeManagementGUI(long launchNanos, EmployeeRepository repository) {
+        this.launchNanos = launchNanos;
+        this.repository = repository;
         initializeGUI();
-        loadSampleData();
+        SwingUtilities.invokeLater(() -> {
+            loadBonusPolicy();
+            loadSampleData();
+        });
+    }
+    
+    /**
+     * Report time-to-first-paint once, measured from launch and from JVM start
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstPaintReported) return;
+        firstPaintReported = true;
+        long sinceLaunch = System.nanoTime() - launchNanos;
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("First paint %.0f ms after launch (%d ms after JVM start)%n",
+                          sinceLaunch / 1_000_000.0, sinceJvmStart);
+        performanceHud.record("Startup", sinceLaunch, sinceJvmStart + " ms from JVM start");
     }
     
     /**
@@ -30,6 +119,12 @@ public class EmployeeManagementGUI extends JFrame {
     private void initializeGUI() {
         setTitle("Employee Management System - GUI");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                checkpointLedger();
+            }
+        });
         setSize(1000, 700);
         setLocationRelativeTo(null);
         
@@ -37,6 +132,7 @@ public class EmployeeManagementGUI extends JFrame {
         
         createMenuBar();
         createMainPanel();
+        createDashboardPanel();
         createStatusBar();
         
         setVisible(true);
@@ -52,14 +148,20 @@ public class EmployeeManagementGUI extends JFrame {
         JMenu fileMenu = new JMenu("File");
         JMenuItem loadItem = new JMenuItem("Load from File");
         JMenuItem saveItem = new JMenuItem("Save to File");
+        JMenuItem importItem = new JMenuItem("Import from File...");
         JMenuItem exitItem = new JMenuItem("Exit");
         
         loadItem.addActionListener(e -> loadFromFile());
         saveItem.addActionListener(e -> saveToFile());
-        exitItem.addActionListener(e -> System.exit(0));
+        importItem.addActionListener(e -> importFromFile());
+        exitItem.addActionListener(e -> {
+            checkpointLedger();
+            System.exit(0);
+        });
         
         fileMenu.add(loadItem);
         fileMenu.add(saveItem);
+        fileMenu.add(importItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
         
@@ -67,15 +169,29 @@ public class EmployeeManagementGUI extends JFrame {
         JMenu employeeMenu = new JMenu("Employee");
         JMenuItem addItem = new JMenuItem("Add Employee");
         JMenuItem updateItem = new JMenuItem("Update Employee");
-        JMenuItem deleteItem = new JMenuItem("Delete Employee");
+        JMenuItem deleteItem = new JMenuItem("Delete Selected");
         
         addItem.addActionListener(e -> showAddEmployeeDialog());
         updateItem.addActionListener(e -> showUpdateEmployeeDialog());
         deleteItem.addActionListener(e -> deleteSelectedEmployee());
         
+        JMenuItem selectAllItem = new JMenuItem("Select All");
+        JMenuItem selectFilteredItem = new JMenuItem("Select Filtered");
+        JMenuItem clearSelectionItem = new JMenuItem("Clear Selection");
+        selectAllItem.addActionListener(e -> selectEmployees(false));
+        selectFilteredItem.addActionListener(e -> selectEmployees(true));
+        clearSelectionItem.addActionListener(e -> {
+            tableModel.clearChecked();
+            updateStatus("Selection cleared.");
+        });
+        
         employeeMenu.add(addItem);
         employeeMenu.add(updateItem);
         employeeMenu.add(deleteItem);
+        employeeMenu.addSeparator();
+        employeeMenu.add(selectAllItem);
+        employeeMenu.add(selectFilteredItem);
+        employeeMenu.add(clearSelectionItem);
         
         // Search & Sort Menu
         JMenu searchSortMenu = new JMenu("Search & Sort");
@@ -104,10 +220,33 @@ public class EmployeeManagementGUI extends JFrame {
         manageItem.addActionListener(e -> showPerformanceDialog());
         performanceMenu.add(manageItem);
         
+        // Payroll Menu
+        JMenu payrollMenu = new JMenu("Payroll");
+        JMenuItem runPayrollItem = new JMenuItem("Run Payroll...");
+        JMenuItem adjustItem = new JMenuItem("Bulk Salary Adjustment...");
+        JMenuItem bonusPolicyItem = new JMenuItem("Bonus Policy...");
+        runPayrollItem.addActionListener(e -> runPayroll());
+        adjustItem.addActionListener(e -> showSalaryAdjustmentDialog());
+        bonusPolicyItem.addActionListener(e -> showBonusPolicyDialog());
+        payrollMenu.add(runPayrollItem);
+        payrollMenu.add(adjustItem);
+        payrollMenu.add(bonusPolicyItem);
+        
         menuBar.add(fileMenu);
         menuBar.add(employeeMenu);
         menuBar.add(searchSortMenu);
         menuBar.add(performanceMenu);
+        menuBar.add(payrollMenu);
+        
+        // View Menu
+        JMenu viewMenu = new JMenu("View");
+        JCheckBoxMenuItem hudItem = new JCheckBoxMenuItem("Performance HUD");
+        hudItem.addActionListener(e -> {
+            performanceHud.setVisible(hudItem.isSelected());
+            revalidate();
+        });
+        viewMenu.add(hudItem);
+        menuBar.add(viewMenu);
         
         setJMenuBar(menuBar);
     }
@@ -119,23 +258,12 @@ public class EmployeeManagementGUI extends JFrame {
         setLayout(new BorderLayout());
         
         // Create table
-        String[] columnNames = {"S.N.", "Select", "Type", "ID", "Name", "Department", "Base Salary", "Rating", "Total Salary"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 1; // Only checkbox column is editable
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int column) {
-                if (column == 1) return Boolean.class; // Checkbox column
-                return super.getColumnClass(column);
-            }
-        };
+        tableModel = new EmployeeTableModel(repository);
         
         employeeTable = new JTable(tableModel);
         employeeTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         employeeTable.setRowHeight(25);
+        employeeTable.setDefaultRenderer(Double.class, new EmployeeTableModel.CurrencyRenderer());
         
         // Set column widths
         employeeTable.getColumnModel().getColumn(0).setPreferredWidth(50);   // S.N.
@@ -148,6 +276,23 @@ public class EmployeeManagementGUI extends JFrame {
         employeeTable.getColumnModel().getColumn(7).setPreferredWidth(60);     // Rating
         employeeTable.getColumnModel().getColumn(8).setPreferredWidth(100);   // Total Salary
         
+        // Click a header to sort, shift-click to add a secondary key, click S.N. for repository order
+        JTableHeader header = employeeTable.getTableHeader();
+        header.setReorderingAllowed(false);
+        TableCellRenderer headerRenderer = header.getDefaultRenderer();
+        header.setDefaultRenderer((table, value, selected, focused, row, column) ->
+            headerRenderer.getTableCellRendererComponent(table,
+                value + tableModel.getSortIndicator(table.convertColumnIndexToModel(column)),
+                selected, focused, row, column));
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                int column = employeeTable.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                if (column >= 0) sortByHeader(column, e.isShiftDown());
+            }
+        });
+        
         // Create search panel above the table
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         
@@ -166,36 +311,42 @@ public class EmployeeManagementGUI extends JFrame {
         searchPanel.add(clearButton);
         
         // Add search functionality
-        searchButton.addActionListener(e -> performSearch(searchTypeCombo, searchField));
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> performSearch(searchTypeCombo, searchField));
+        searchTimer.setRepeats(false);
+        searchButton.addActionListener(e -> {
+            searchTimer.stop();
+            performSearch(searchTypeCombo, searchField);
+        });
         clearButton.addActionListener(e -> {
             searchField.setText("");
+            searchTimer.stop();
             searchTypeCombo.setSelectedIndex(0);
             refreshTable();
             updateStatus("Search cleared. Showing all employees.");
         });
         
-        // Add real-time search as user types
+        // Real-time search as user types, run once typing pauses
         searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
             @Override
             public void insertUpdate(javax.swing.event.DocumentEvent e) {
-                performSearch(searchTypeCombo, searchField);
+                searchTimer.restart();
             }
             
             @Override
             public void removeUpdate(javax.swing.event.DocumentEvent e) {
-                performSearch(searchTypeCombo, searchField);
+                searchTimer.restart();
             }
             
             @Override
             public void changedUpdate(javax.swing.event.DocumentEvent e) {
-                performSearch(searchTypeCombo, searchField);
+                searchTimer.restart();
             }
         });
         
         JScrollPane scrollPane = new JScrollPane(employeeTable);
         
         // Create button panel
-        JPanel buttonPanel = new JPanel(new FlowLayout());
+        buttonPanel = new JPanel(new FlowLayout());
         
         JButton addBtn = new JButton("➕ Add Employee");
         JButton updateBtn = new JButton("✏️ Update");
@@ -221,10 +372,96 @@ public class EmployeeManagementGUI extends JFrame {
         buttonPanel.add(advancedSearchBtn);
         buttonPanel.add(sortBtn);
         
-        // Add components to main layout
+        // Add components to main layout (button panel is placed with the status bar)
         add(searchPanel, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        centerPanel = new JPanel(new BorderLayout());
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        add(centerPanel, BorderLayout.CENTER);
+        
+        // Hidden until View > Performance HUD is ticked
+        performanceHud = new PerformanceHud(edtMonitor);
+        add(performanceHud, BorderLayout.EAST);
+    }
+    
+    /**
+     * Create the dashboard panel with department and type statistics
+     */
+    private void createDashboardPanel() {
+        String[] columnNames = {"Group", "Headcount", "Base Payroll", "Total Payroll", "Avg Rating", "Min Total", "Max Total",
+                                "P50 Total", "P90 Total", "P99 Total"};
+        dashboardModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable dashboardTable = new JTable(dashboardModel);
+        dashboardTable.setRowSelectionAllowed(false);
+        
+        JScrollPane dashboardScroll = new JScrollPane(dashboardTable);
+        dashboardScroll.setBorder(BorderFactory.createTitledBorder("Dashboard"));
+        dashboardScroll.setPreferredSize(new Dimension(0, 150));
+        
+        // Sits between the employee table and the buttons
+        centerPanel.add(dashboardScroll, BorderLayout.SOUTH);
+        
+        AtomicBoolean dashboardPending = new AtomicBoolean();
+        repository.addChangeListener(event -> refreshOnEdt(dashboardPending, this::updateDashboard));
+        updateDashboard();
+    }
+    
+    /**
+     * Run a view refresh for a repository change on the EDT
+     * Changes also come from other threads (import pipeline, HTTP API); those
+     * refreshes are posted, coalesced while one is still waiting, and read the
+     * repository under its read lock.
+     */
+    private void refreshOnEdt(AtomicBoolean pending, Runnable refresh) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            refresh.run();
+            return;
+        }
+        if (!pending.compareAndSet(false, true)) return;
+        SwingUtilities.invokeLater(() -> {
+            pending.set(false);
+            repository.read(() -> {
+                refresh.run();
+                return null;
+            });
+        });
+    }
+    
+    /**
+     * Refresh the dashboard from the maintained aggregates
+     * Reads one row per department and type; never scans the roster.
+     * Percentiles come from the per-group salary sketches.
+     */
+    private void updateDashboard() {
+        EmployeeAggregates aggregates = repository.getAggregates();
+        dashboardModel.setRowCount(0);
+        for (EmployeeAggregates.GroupStats stats : aggregates.getDepartments()) {
+            addDashboardRow("Dept: " + stats.getName(), stats);
+        }
+        for (EmployeeAggregates.GroupStats stats : aggregates.getTypes()) {
+            addDashboardRow("Type: " + stats.getName(), stats);
+        }
+        addDashboardRow("All employees", aggregates.getOverall());
+    }
+    
+    private void addDashboardRow(String label, EmployeeAggregates.GroupStats stats) {
+        double[] percentiles = stats.getTotalSalarySketch().quantiles(0.5, 0.9, 0.99);
+        dashboardModel.addRow(new Object[]{
+            label,
+            stats.getHeadcount(),
+            String.format("$%.2f", stats.getBaseSalarySum()),
+            String.format("$%.2f", stats.getTotalSalarySum()),
+            String.format("%.2f", stats.getAverageRating()),
+            String.format("$%.2f", stats.getMinTotalSalary()),
+            String.format("$%.2f", stats.getMaxTotalSalary()),
+            String.format("$%.2f", percentiles[0]),
+            String.format("$%.2f", percentiles[1]),
+            String.format("$%.2f", percentiles[2])
+        });
     }
     
     /**
@@ -232,41 +469,72 @@ public class EmployeeManagementGUI extends JFrame {
      */
     private void createStatusBar() {
         statusLabel = new JLabel("Ready");
-        statusLabel.setBorder(BorderFactory.createLoweredBevelBorder());
-        add(statusLabel, BorderLayout.SOUTH);
+        countsLabel = new JLabel();
+        
+        // Progress of a background load or save, hidden while idle
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        cancelTaskButton = new JButton("Cancel");
+        cancelTaskButton.addActionListener(e -> {
+            if (fileTask != null) fileTask.cancel(false);
+        });
+        progressPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelTaskButton);
+        progressPanel.setVisible(false);
+        
+        JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+        statusBar.setBorder(BorderFactory.createLoweredBevelBorder());
+        statusBar.add(progressPanel, BorderLayout.WEST);
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(countsLabel, BorderLayout.EAST);
+        
+        // Buttons and status bar share the bottom of the window
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+        
+        // Keep the counts current after every change
+        AtomicBoolean countsPending = new AtomicBoolean();
+        repository.addChangeListener(event -> refreshOnEdt(countsPending, this::updateCounts));
+        updateCounts();
+    }
+    
+    /**
+     * Show headcount by type and high performers in the status bar
+     * Answered from the bitmap indexes; no employee is materialized.
+     */
+    private void updateCounts() {
+        int managers = SortingSearchingAlgorithms.count(repository,
+            EmployeeQuery.eq(SortingSearchingAlgorithms.SortCriteria.EMPLOYEE_TYPE, "Manager"));
+        int interns = SortingSearchingAlgorithms.count(repository,
+            EmployeeQuery.eq(SortingSearchingAlgorithms.SortCriteria.EMPLOYEE_TYPE, "Intern"));
+        int regulars = SortingSearchingAlgorithms.count(repository,
+            EmployeeQuery.eq(SortingSearchingAlgorithms.SortCriteria.EMPLOYEE_TYPE, "Regular"));
+        int topRated = SortingSearchingAlgorithms.count(repository,
+            EmployeeQuery.between(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING, 4, 5));
+        countsLabel.setText(String.format("Managers: %d | Interns: %d | Regular: %d | Rating ≥ 4: %d ",
+                                          managers, interns, regulars, topRated));
     }
     
     /**
      * Load sample data for demonstration
      */
     private void loadSampleData() {
-        employees.add(new Manager("M001", "John Smith", "IT", 80000, 4));
-        employees.add(new Intern("I001", "Alice Johnson", "HR", 30000, 3));
-        employees.add(new Regular("R001", "Bob Wilson", "Finance", 60000, 5));
+        repository.add(new Manager("M001", "John Smith", "IT", 80000, 4));
+        repository.add(new Intern("I001", "Alice Johnson", "HR", 30000, 3));
+        repository.add(new Regular("R001", "Bob Wilson", "Finance", 60000, 5));
         refreshTable();
-        updateStatus("Sample data loaded. Total employees: " + employees.size());
+        updateStatus("Sample data loaded. Total employees: " + repository.size());
     }
     
     /**
      * Refresh the employee table
      */
     private void refreshTable() {
-        tableModel.setRowCount(0);
-        int serialNumber = 1;
-        for (Employee emp : employees) {
-            Object[] row = {
-                serialNumber++,                    // S.N.
-                false,                             // Select checkbox
-                emp.getClass().getSimpleName(),   // Type
-                emp.getId(),                       // ID
-                emp.getName(),                     // Name
-                emp.getDepartment(),              // Department
-                String.format("$%.2f", emp.getSalary()), // Base Salary
-                emp.getPerformanceRating(),        // Rating
-                String.format("$%.2f", emp.calculateSalary()) // Total Salary
-            };
-            tableModel.addRow(row);
-        }
+        cancelSearch();
+        tableModel.showAll();
     }
     
     /**
@@ -281,11 +549,10 @@ public class EmployeeManagementGUI extends JFrame {
      * Show add employee dialog
      */
     private void showAddEmployeeDialog() {
-        AddEmployeeDialog dialog = new AddEmployeeDialog(this, employees);
-        dialog.setVisible(true);
-        if (dialog.isEmployeeAdded()) {
-            refreshTable();
-            updateStatus("Employee added successfully. Total employees: " + employees.size());
+        if (addDialog == null) addDialog = new AddEmployeeDialog(this, repository);
+        addDialog.open();
+        if (addDialog.isEmployeeAdded()) {
+            updateStatus("Employee added successfully. Total employees: " + repository.size());
         }
     }
     
@@ -293,56 +560,51 @@ public class EmployeeManagementGUI extends JFrame {
      * Show update employee dialog
      */
     private void showUpdateEmployeeDialog() {
-        int selectedRow = getSelectedEmployeeRow();
-        if (selectedRow == -1) {
+        Employee emp = getSelectedEmployee();
+        if (emp == null) {
             JOptionPane.showMessageDialog(this, "Please select an employee to update.", 
                                         "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        String empId = (String) tableModel.getValueAt(selectedRow, 3); // ID is now column 3
-        Employee emp = findEmployeeById(empId);
-        
-        if (emp != null) {
-            UpdateEmployeeDialog dialog = new UpdateEmployeeDialog(this, emp);
-            dialog.setVisible(true);
-            if (dialog.isEmployeeUpdated()) {
-                refreshTable();
-                updateStatus("Employee updated successfully.");
-            }
+        if (updateDialog == null) updateDialog = new UpdateEmployeeDialog(this, repository);
+        updateDialog.open(emp);
+        if (updateDialog.isEmployeeUpdated()) {
+            updateStatus("Employee updated successfully.");
         }
     }
     
     /**
-     * Delete selected employee
+     * Delete all selected employees
      */
     private void deleteSelectedEmployee() {
-        int selectedRow = getSelectedEmployeeRow();
-        if (selectedRow == -1) {
+        Employee emp = getSelectedEmployee();
+        if (emp == null) {
             JOptionPane.showMessageDialog(this, "Please select an employee to delete.", 
                                         "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        String empId = (String) tableModel.getValueAt(selectedRow, 3); // ID is now column 3
-        String empName = (String) tableModel.getValueAt(selectedRow, 4); // Name is now column 4
+        List<Employee> selected = tableModel.getCheckedEmployees();
+        String question = selected.size() == 1
+            ? "Are you sure you want to delete employee: " + emp.getName() + " (ID: " + emp.getId() + ")?"
+            : "Are you sure you want to delete the " + selected.size() + " selected employees?";
         
-        int confirm = JOptionPane.showConfirmDialog(this, 
-            "Are you sure you want to delete employee: " + empName + " (ID: " + empId + ")?",
-            "Confirm Delete", JOptionPane.YES_NO_OPTION);
+        int confirm = JOptionPane.showConfirmDialog(this, question, "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            Employee emp = findEmployeeById(empId);
-            if (emp != null) {
-                employees.remove(emp);
-                refreshTable();
-                updateStatus("Employee deleted successfully. Total employees: " + employees.size());
-            }
+            // One repository transaction, one index pass and one table event for all of them
+            int removed = repository.removeAll(selected);
+            updateStatus(removed == 1
+                ? "Employee deleted successfully. Total employees: " + repository.size()
+                : "Deleted " + removed + " employees. Total employees: " + repository.size());
         }
     }
     
     /**
      * Perform search and filter the main table
+     * The scan runs on the search thread over a snapshot of the employees; a
+     * newer search or refresh cancels it and its results are dropped.
      */
     private void performSearch(JComboBox<String> searchTypeCombo, JTextField searchField) {
         String searchType = (String) searchTypeCombo.getSelectedItem();
@@ -356,173 +618,500 @@ public class EmployeeManagementGUI extends JFrame {
         }
         
         // Filter employees based on search criteria
-        LinkedList<Employee> filteredEmployees = new LinkedList<>();
+        cancelSearch();
+        long generation = searchGeneration;
+        EmployeeQuery query = buildSearchQuery(searchType, searchTerm);
+        pendingSearch = searchExecutor.submit(() -> {
+            long startTime = System.nanoTime();
+            List<Employee> filteredEmployees =
+                SortingSearchingAlgorithms.filterInterruptibly(repository.snapshot(), query);
+            long duration = System.nanoTime() - startTime;
+            SwingUtilities.invokeLater(() -> showSearchResults(generation, searchTerm, query, filteredEmployees, duration));
+        });
+    }
+    
+    /**
+     * Show the results of a search unless a newer search or refresh came first
+     */
+    private void showSearchResults(long generation, String searchTerm, EmployeeQuery query,
+                                   List<Employee> filteredEmployees, long durationNanos) {
+        if (generation != searchGeneration) return;
+        pendingSearch = null;
         
+        // Update table with filtered results
+        updateTableWithResults(filteredEmployees, query);
+        performanceHud.record("Search", durationNanos, filteredEmployees.size() + " found");
+        
+        if (filteredEmployees.isEmpty()) {
+            updateStatus(String.format("No employees found matching: '%s' (%.1f ms)",
+                                       searchTerm, durationNanos / 1_000_000.0));
+        } else {
+            updateStatus(String.format("Found %d employee(s) matching: '%s' (%.1f ms)",
+                                       filteredEmployees.size(), searchTerm, durationNanos / 1_000_000.0));
+        }
+    }
+    
+    /**
+     * Stop a running search and make sure its results are never shown
+     */
+    private void cancelSearch() {
+        searchGeneration++;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+    }
+    
+    /**
+     * Build the typed query for the main search field
+     * Text columns match partially; "Rating" means rating at least the entered value.
+     */
+    private EmployeeQuery buildSearchQuery(String searchType, String searchTerm) {
         switch (searchType) {
-            case "All":
-                for (Employee emp : employees) {
-                    if (emp.getId().toLowerCase().contains(searchTerm) ||
-                        emp.getName().toLowerCase().contains(searchTerm) ||
-                        emp.getDepartment().toLowerCase().contains(searchTerm) ||
-                        String.valueOf(emp.getPerformanceRating()).contains(searchTerm)) {
-                        filteredEmployees.add(emp);
-                    }
-                }
-                break;
-                
             case "ID":
-                for (Employee emp : employees) {
-                    if (emp.getId().toLowerCase().contains(searchTerm)) {
-                        filteredEmployees.add(emp);
-                    }
-                }
-                break;
-                
+                return EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.ID, searchTerm);
             case "Name":
-                for (Employee emp : employees) {
-                    if (emp.getName().toLowerCase().contains(searchTerm)) {
-                        filteredEmployees.add(emp);
-                    }
-                }
-                break;
-                
+                return EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.NAME, searchTerm);
             case "Department":
-                for (Employee emp : employees) {
-                    if (emp.getDepartment().toLowerCase().contains(searchTerm)) {
-                        filteredEmployees.add(emp);
-                    }
-                }
-                break;
-                
+                return EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.DEPARTMENT, searchTerm);
             case "Rating":
                 try {
                     int rating = Integer.parseInt(searchTerm);
-                    for (Employee emp : employees) {
-                        if (emp.getPerformanceRating() >= rating) {
-                            filteredEmployees.add(emp);
-                        }
-                    }
+                    return EmployeeQuery.between(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING,
+                                                 rating, Integer.MAX_VALUE);
                 } catch (NumberFormatException e) {
-                    // If not a number, search for exact rating match
-                    for (Employee emp : employees) {
-                        if (String.valueOf(emp.getPerformanceRating()).equals(searchTerm)) {
-                            filteredEmployees.add(emp);
-                        }
-                    }
+                    return EmployeeQuery.eq(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING, searchTerm);
                 }
-                break;
-        }
-        
-        // Update table with filtered results
-        updateTableWithResults(filteredEmployees);
-        
-        if (filteredEmployees.isEmpty()) {
-            updateStatus("No employees found matching: '" + searchTerm + "'");
-        } else {
-            updateStatus("Found " + filteredEmployees.size() + " employee(s) matching: '" + searchTerm + "'");
+            default: // All
+                return EmployeeQuery.or(
+                    EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.ID, searchTerm),
+                    EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.NAME, searchTerm),
+                    EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.DEPARTMENT, searchTerm),
+                    EmployeeQuery.eq(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING, searchTerm));
         }
     }
     
     /**
-     * Update table with filtered results
-     */
-    private void updateTableWithResults(LinkedList<Employee> filteredEmployees) {
-        tableModel.setRowCount(0);
-        int serialNumber = 1;
-        for (Employee emp : filteredEmployees) {
-            Object[] row = {
-                serialNumber++,                    // S.N.
-                false,                             // Select checkbox
-                emp.getClass().getSimpleName(),   // Type
-                emp.getId(),                       // ID
-                emp.getName(),                     // Name
-                emp.getDepartment(),              // Department
-                String.format("$%.2f", emp.getSalary()), // Base Salary
-                emp.getPerformanceRating(),        // Rating
-                String.format("$%.2f", emp.calculateSalary()) // Total Salary
-            };
-            tableModel.addRow(row);
-        }
+     * Update table with filtered results; later changes stay filtered by the query
+     */
+    private void updateTableWithResults(List<Employee> filteredEmployees, EmployeeQuery query) {
+        tableModel.showRows(filteredEmployees, query);
     }
     
     /**
      * Show performance management dialog
      */
     private void showPerformanceDialog() {
-        int selectedRow = getSelectedEmployeeRow();
-        if (selectedRow == -1) {
+        Employee emp = getSelectedEmployee();
+        if (emp == null) {
             JOptionPane.showMessageDialog(this, "Please select an employee to manage performance.", 
                                         "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        String empId = (String) tableModel.getValueAt(selectedRow, 3); // ID is now column 3
-        Employee emp = findEmployeeById(empId);
-        
-        if (emp != null) {
-            PerformanceDialog dialog = new PerformanceDialog(this, emp);
-            dialog.setVisible(true);
-            if (dialog.isPerformanceUpdated()) {
-                refreshTable();
-                updateStatus("Performance updated successfully.");
-            }
+        if (performanceDialog == null) performanceDialog = new PerformanceDialog(this, repository, ledger);
+        performanceDialog.open(emp);
+        if (performanceDialog.isPerformanceUpdated()) {
+            updateStatus("Performance updated successfully.");
         }
     }
     
     /**
      * Load employees from file
+     * The file is read on a background thread; rows appear in the table in
+     * batches as they are read and replace the employees only when the whole
+     * file has loaded. Cancelling leaves the employees unchanged.
      */
     private void loadFromFile() {
+        if (isFileTaskRunning()) return;
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv", "txt"));
         
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             String filename = fileChooser.getSelectedFile().getAbsolutePath();
-            employees = FileHandler.loadEmployeesLinked(filename);
-            refreshTable();
-            updateStatus("Loaded " + employees.size() + " employees from " + filename);
+            EmployeeAggregates.Builder stats = new EmployeeAggregates.Builder();
+            cancelSearch();
+            tableModel.setSortOrder(null); // Show the file order
+            employeeTable.getTableHeader().repaint();
+            tableModel.beginPreview();
+            
+            startFileTask(new FileTask<List<Employee>, List<Employee>>() {
+                @Override
+                protected List<Employee> doInBackground() throws IOException {
+                    return FileHandler.loadEmployees(filename, stats, batch -> publish(batch), this);
+                }
+                
+                @Override
+                protected void process(List<List<Employee>> batches) {
+                    for (List<Employee> batch : batches) tableModel.appendPreview(batch);
+                }
+                
+                @Override
+                protected void done() {
+                    finishFileTask();
+                    if (isCancelled()) {
+                        refreshTable();
+                        updateStatus("Load cancelled. Employees were not changed.");
+                        return;
+                    }
+                    try {
+                        repository.replaceAll(get(), stats);
+                        refreshTable();
+                        performanceHud.record("Load", elapsedNanos(), repository.size() + " rows");
+                        updateStatus("Loaded " + repository.size() + " employees from " + filename);
+                    } catch (InterruptedException | ExecutionException e) {
+                        refreshTable();
+                        JOptionPane.showMessageDialog(EmployeeManagementGUI.this,
+                            "Error loading file: " + causeOf(e).getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }, "Loading");
+        }
+    }
+    
+    /**
+     * Add the employees of a file to the current ones
+     * Rows are validated and checked for duplicate IDs on background threads
+     * and appear in the table batch by batch; see ImportPipeline.
+     */
+    private void importFromFile() {
+        if (isFileTaskRunning()) return;
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv", "txt"));
+        
+        int result = fileChooser.showOpenDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            Path file = fileChooser.getSelectedFile().toPath();
+            
+            startFileTask(new FileTask<ImportPipeline.Result, Void>() {
+                @Override
+                protected ImportPipeline.Result doInBackground() throws IOException {
+                    return new ImportPipeline(repository).run(file, this);
+                }
+                
+                @Override
+                protected void done() {
+                    finishFileTask();
+                    if (isCancelled()) {
+                        updateStatus("Import cancelled. Employees imported so far were kept.");
+                        return;
+                    }
+                    try {
+                        ImportPipeline.Result imported = get();
+                        performanceHud.record("Import", elapsedNanos(), imported.getImported() + " rows");
+                        updateStatus("Imported " + imported.getImported() + " employees from " + file +
+                                     ", rejected " + imported.getRejected());
+                        JOptionPane.showMessageDialog(EmployeeManagementGUI.this, imported.describe(),
+                            "Import Complete", imported.getRejected() == 0
+                                ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                    } catch (InterruptedException | ExecutionException e) {
+                        JOptionPane.showMessageDialog(EmployeeManagementGUI.this,
+                            "Error importing file: " + causeOf(e).getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }, "Importing");
         }
     }
     
     /**
      * Save employees to file
+     * Detached copies are taken first, so the file holds one consistent state
+     * while employees can be edited during the write.
      */
     private void saveToFile() {
+        if (isFileTaskRunning()) return;
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv", "txt"));
         
         int result = fileChooser.showSaveDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             String filename = fileChooser.getSelectedFile().getAbsolutePath();
-            FileHandler.saveEmployeesLinked(filename, employees);
-            updateStatus("Saved " + employees.size() + " employees to " + filename);
+            List<Employee> snapshot = repository.detachedSnapshot();
+            
+            startFileTask(new FileTask<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws IOException {
+                    FileHandler.saveEmployees(filename, snapshot, this);
+                    return null;
+                }
+                
+                @Override
+                protected void done() {
+                    finishFileTask();
+                    if (isCancelled()) {
+                        updateStatus("Save cancelled. " + filename + " was not changed unless the save had just finished.");
+                        return;
+                    }
+                    try {
+                        get();
+                        performanceHud.record("Save", elapsedNanos(), snapshot.size() + " rows");
+                        updateStatus("Saved " + snapshot.size() + " employees to " + filename);
+                    } catch (InterruptedException | ExecutionException e) {
+                        JOptionPane.showMessageDialog(EmployeeManagementGUI.this,
+                            "Error saving file: " + causeOf(e).getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }, "Saving");
         }
     }
     
     /**
-     * Find employee by ID
+     * Background load or save that reports its progress to the status bar
      */
-    private Employee findEmployeeById(String id) {
-        for (Employee emp : employees) {
-            if (emp.getId().equalsIgnoreCase(id)) {
-                return emp;
+    private abstract static class FileTask<T, V> extends SwingWorker<T, V> implements FileHandler.Progress {
+        private final long startTime = System.nanoTime();
+        
+        /** Time since the task was created */
+        long elapsedNanos() {
+            return System.nanoTime() - startTime;
+        }
+        
+        @Override
+        public void update(long done, long total) {
+            setProgress(total == 0 ? 100 : (int) Math.min(100, done * 100 / total));
+        }
+    }
+    
+    /**
+     * Show the progress bar and run a file task
+     */
+    private void startFileTask(FileTask<?, ?> task, String action) {
+        fileTask = task;
+        progressBar.setValue(0);
+        progressBar.setString(action + " 0%");
+        task.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                progressBar.setValue((Integer) event.getNewValue());
+                progressBar.setString(action + " " + event.getNewValue() + "%");
             }
+        });
+        progressPanel.setVisible(true);
+        updateStatus(action + "...");
+        task.execute();
+    }
+    
+    private void finishFileTask() {
+        fileTask = null;
+        progressPanel.setVisible(false);
+    }
+    
+    /**
+     * Only one load or save runs at a time
+     */
+    private boolean isFileTaskRunning() {
+        if (fileTask == null) return false;
+        JOptionPane.showMessageDialog(this, "Please wait for the current load or save to finish.",
+                                    "Busy", JOptionPane.INFORMATION_MESSAGE);
+        return true;
+    }
+    
+    private static Throwable causeOf(Exception e) {
+        return e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+    }
+    
+    /**
+     * Run payroll for all employees, write the register and show the totals
+     */
+    private void runPayroll() {
+        if (isFileTaskRunning()) return;
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Payroll Register");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
+        
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        String filename = fileChooser.getSelectedFile().getAbsolutePath();
+        // Only the fines recorded in the pay period being run are deducted
+        YearMonth period = YearMonth.now();
+        
+        startFileTask(new FileTask<PayrollRun.Result, Void>() {
+            @Override
+            protected PayrollRun.Result doInBackground() throws IOException {
+                return new PayrollRun(repository, ledger.getFinesIn(period)).run(filename, this);
+            }
+            
+            @Override
+            protected void done() {
+                finishFileTask();
+                if (isCancelled()) {
+                    updateStatus("Payroll run cancelled. " + filename + " was not changed unless the run had just finished.");
+                    return;
+                }
+                try {
+                    PayrollRun.Result result = get();
+                    
+                    JTextArea summaryArea = new JTextArea(result.summary());
+                    summaryArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                    summaryArea.setEditable(false);
+                    JScrollPane scrollPane = new JScrollPane(summaryArea);
+                    scrollPane.setPreferredSize(new Dimension(720, 300));
+                    
+                    JOptionPane.showMessageDialog(EmployeeManagementGUI.this, scrollPane,
+                                                "Payroll Run " + period, JOptionPane.INFORMATION_MESSAGE);
+                    updateStatus(String.format("Payroll for %s: %d employees written to %s",
+                                               period, result.getEmployeeCount(), filename));
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(EmployeeManagementGUI.this,
+                        "Error writing payroll register: " + causeOf(e).getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }, "Running payroll");
+    }
+    
+    /**
+     * Ask for a bulk salary adjustment and apply it in one step
+     */
+    private void showSalaryAdjustmentDialog() {
+        JTextField conditionField = new JTextField("DEPARTMENT=Finance; PERFORMANCE_RATING>=4", 30);
+        JTextField percentField = new JTextField("4", 6);
+        JTextField othersField = new JTextField("2", 6);
+        
+        JPanel panel = new JPanel(new GridLayout(0, 1, 5, 5));
+        panel.add(new JLabel("Condition (CRITERIA=value, >=, <=; separated by ';'):"));
+        panel.add(conditionField);
+        panel.add(new JLabel("Raise for matching employees (%):"));
+        panel.add(percentField);
+        panel.add(new JLabel("Raise for everyone else (%, blank for none):"));
+        panel.add(othersField);
+        
+        int choice = JOptionPane.showConfirmDialog(this, panel, "Bulk Salary Adjustment",
+                                                   JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) return;
+        
+        try {
+            SalaryAdjustment adjustment = new SalaryAdjustment()
+                .when(SalaryAdjustment.parseCondition(conditionField.getText()),
+                      Double.parseDouble(percentField.getText().trim()));
+            if (!othersField.getText().isBlank()) {
+                adjustment.otherwise(Double.parseDouble(othersField.getText().trim()));
+            }
+            
+            int confirm = JOptionPane.showConfirmDialog(this, "Apply " + adjustment.describe() + "?",
+                                                        "Confirm Adjustment", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) return;
+            
+            SalaryAdjustment.Result result = adjustment.apply(repository, Path.of(SalaryAdjustment.DEFAULT_LOG));
+            updateStatus(String.format("Adjusted %d salaries (base payroll %s$%s) in %.2f ms",
+                result.getEmployeeCount(), result.getDeltaCents() >= 0 ? "+" : "",
+                Money.format(result.getDeltaCents()), result.getDurationNanos() / 1_000_000.0));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Invalid adjustment: " + e.getMessage(),
+                                        "Invalid Input", JOptionPane.ERROR_MESSAGE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Salaries were adjusted but the log could not be written: "
+                                        + e.getMessage(), "Log Error", JOptionPane.WARNING_MESSAGE);
         }
-        return null;
     }
     
     /**
-     * Get the first selected employee row using checkboxes
+     * Edit the bonus rules and re-evaluate all total salaries
      */
-    private int getSelectedEmployeeRow() {
-        for (int i = 0; i < tableModel.getRowCount(); i++) {
-            Boolean isSelected = (Boolean) tableModel.getValueAt(i, 1); // Checkbox column
-            if (isSelected != null && isSelected) {
-                return i;
+    private void showBonusPolicyDialog() {
+        DefaultTableModel rulesModel = new DefaultTableModel(new String[] {"Type", "Department", "Bonus %"}, 0);
+        for (BonusPolicy.Rule rule : BonusPolicy.current().getRules()) {
+            rulesModel.addRow(new Object[] {rule.getType(), rule.getDepartment(),
+                                            BonusPolicy.toPercent(rule.getBasisPoints())});
+        }
+        JTable rulesTable = new JTable(rulesModel);
+        JScrollPane scrollPane = new JScrollPane(rulesTable);
+        scrollPane.setPreferredSize(new Dimension(420, 180));
+        
+        JButton addRowButton = new JButton("Add Rule");
+        JButton removeRowButton = new JButton("Remove Rule");
+        addRowButton.addActionListener(e -> rulesModel.addRow(new Object[] {BonusPolicy.ANY, BonusPolicy.ANY, "0"}));
+        removeRowButton.addActionListener(e -> {
+            int row = rulesTable.getSelectedRow();
+            if (row >= 0) rulesModel.removeRow(row);
+        });
+        JPanel rowButtons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        rowButtons.add(addRowButton);
+        rowButtons.add(removeRowButton);
+        
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(new JLabel("First matching rule applies; * matches any type or department."), BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(rowButtons, BorderLayout.SOUTH);
+        
+        int choice = JOptionPane.showConfirmDialog(this, panel, "Bonus Policy",
+                                                   JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) return;
+        if (rulesTable.isEditing()) rulesTable.getCellEditor().stopCellEditing();
+        
+        try {
+            List<BonusPolicy.Rule> rules = new ArrayList<>();
+            for (int i = 0; i < rulesModel.getRowCount(); i++) {
+                rules.add(new BonusPolicy.Rule(String.valueOf(rulesModel.getValueAt(i, 0)),
+                    String.valueOf(rulesModel.getValueAt(i, 1)),
+                    BonusPolicy.toBasisPoints(Double.parseDouble(String.valueOf(rulesModel.getValueAt(i, 2)).trim()))));
             }
+            BonusPolicy policy = new BonusPolicy(rules);
+            
+            long startTime = System.nanoTime();
+            repository.setBonusPolicy(policy);
+            long duration = System.nanoTime() - startTime;
+            policy.save(Path.of(BonusPolicy.DEFAULT_FILE));
+            updateStatus(String.format("Bonus policy applied to %d employees in %.2f ms",
+                                       repository.size(), duration / 1_000_000.0));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Invalid bonus rule: " + e.getMessage(),
+                                        "Invalid Input", JOptionPane.ERROR_MESSAGE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Bonus policy was applied but could not be saved: "
+                                        + e.getMessage(), "Save Error", JOptionPane.WARNING_MESSAGE);
         }
-        return -1; // No employee selected
+    }
+    
+    /**
+     * Put the saved bonus policy in force, if there is one
+     */
+    private void loadBonusPolicy() {
+        Path file = Path.of(BonusPolicy.DEFAULT_FILE);
+        if (!Files.exists(file)) return;
+        try {
+            repository.setBonusPolicy(BonusPolicy.load(file));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("⚠ Could not load bonus policy, using defaults: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Open the bonus/fine ledger, falling back to memory if the file cannot be read
+     */
+    private static PayrollLedger openLedger() {
+        try {
+            return new PayrollLedger(Path.of(PayrollLedger.DEFAULT_FILE));
+        } catch (IOException e) {
+            System.out.println("⚠ Could not open payroll ledger: " + e.getMessage());
+            return PayrollLedger.inMemory();
+        }
+    }
+    
+    /**
+     * Compact the ledger log before exiting
+     */
+    private void checkpointLedger() {
+        try {
+            ledger.checkpoint();
+            ledger.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Could not checkpoint payroll ledger: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the first employee ticked with the checkboxes, or null
+     */
+    private Employee getSelectedEmployee() {
+        return tableModel.getFirstChecked();
+    }
+    
+    /**
+     * Tick all employees, or only those matching the current search
+     */
+    private void selectEmployees(boolean filteredOnly) {
+        if (filteredOnly) tableModel.checkShown();
+        else tableModel.checkAll();
+        updateStatus(tableModel.getCheckedCount() + " employee(s) selected.");
     }
     
     
@@ -530,33 +1119,41 @@ public class EmployeeManagementGUI extends JFrame {
      * Show advanced search dialog
      */
     private void showAdvancedSearchDialog() {
-        AdvancedSearchDialog dialog = new AdvancedSearchDialog(this, employees);
-        dialog.setVisible(true);
+        if (advancedSearchDialog == null) advancedSearchDialog = new AdvancedSearchDialog(this, repository);
+        advancedSearchDialog.open();
     }
     
     /**
      * Show sort dialog
      */
     private void showSortDialog() {
-        JDialog sortDialog = new JDialog(this, "Sort Employees", true);
-        sortDialog.setSize(400, 300);
+        if (sortDialog == null) sortDialog = createSortDialog();
         sortDialog.setLocationRelativeTo(this);
-        sortDialog.setLayout(new GridLayout(4, 2, 10, 10));
+        sortDialog.setVisible(true);
+    }
+    
+    /**
+     * Build the sort dialog; it keeps the last choices between uses
+     */
+    private JDialog createSortDialog() {
+        JDialog dialog = new JDialog(this, "Sort Employees", true);
+        dialog.setSize(400, 300);
+        dialog.setLayout(new GridLayout(4, 2, 10, 10));
         
-        sortDialog.add(new JLabel("Sort by:"));
+        dialog.add(new JLabel("Sort by:"));
         JComboBox<SortingSearchingAlgorithms.SortCriteria> criteriaCombo = 
             new JComboBox<>(SortingSearchingAlgorithms.SortCriteria.values());
-        sortDialog.add(criteriaCombo);
+        dialog.add(criteriaCombo);
         
-        sortDialog.add(new JLabel("Order:"));
+        dialog.add(new JLabel("Order:"));
         JComboBox<SortingSearchingAlgorithms.SortOrder> orderCombo = 
             new JComboBox<>(SortingSearchingAlgorithms.SortOrder.values());
-        sortDialog.add(orderCombo);
+        dialog.add(orderCombo);
         
-        sortDialog.add(new JLabel("Algorithm:"));
+        dialog.add(new JLabel("Algorithm:"));
         JComboBox<String> algorithmCombo = 
             new JComboBox<>(new String[]{"Quick Sort", "Merge Sort", "Heap Sort", "Insertion Sort"});
-        sortDialog.add(algorithmCombo);
+        dialog.add(algorithmCombo);
         
         JButton sortButton = new JButton("Sort");
         JButton cancelButton = new JButton("Cancel");
@@ -568,37 +1165,77 @@ public class EmployeeManagementGUI extends JFrame {
                 (SortingSearchingAlgorithms.SortOrder) orderCombo.getSelectedItem();
             String algorithm = (String) algorithmCombo.getSelectedItem();
             
-            List<Employee> sortedEmployees = new ArrayList<>(employees);
-            
-            switch (algorithm) {
-                case "Quick Sort":
-                    SortingSearchingAlgorithms.quickSort(sortedEmployees, criteria, order);
-                    break;
-                case "Merge Sort":
-                    SortingSearchingAlgorithms.mergeSort(sortedEmployees, criteria, order);
-                    break;
-                case "Heap Sort":
-                    SortingSearchingAlgorithms.heapSort(sortedEmployees, criteria, order);
-                    break;
-                case "Insertion Sort":
-                    SortingSearchingAlgorithms.insertionSort(sortedEmployees, criteria, order);
-                    break;
-            }
-            
-            // Update the main employees list
-            employees.clear();
-            employees.addAll(sortedEmployees);
-            refreshTable();
+            // Update the display order of the main employees list
+            applySortOrder(sortedEmployees -> {
+                switch (algorithm) {
+                    case "Quick Sort":
+                        SortingSearchingAlgorithms.quickSort(sortedEmployees, criteria, order);
+                        break;
+                    case "Merge Sort":
+                        SortingSearchingAlgorithms.mergeSort(sortedEmployees, criteria, order);
+                        break;
+                    case "Heap Sort":
+                        SortingSearchingAlgorithms.heapSort(sortedEmployees, criteria, order);
+                        break;
+                    case "Insertion Sort":
+                        SortingSearchingAlgorithms.insertionSort(sortedEmployees, criteria, order);
+                        break;
+                }
+            }, criteria, order);
             updateStatus(String.format("Sorted by %s (%s) using %s", criteria, order, algorithm));
-            sortDialog.dispose();
+            dialog.setVisible(false);
         });
         
-        cancelButton.addActionListener(e -> sortDialog.dispose());
+        cancelButton.addActionListener(e -> dialog.setVisible(false));
         
-        sortDialog.add(sortButton);
-        sortDialog.add(cancelButton);
+        dialog.add(sortButton);
+        dialog.add(cancelButton);
         
-        sortDialog.setVisible(true);
+        return dialog;
+    }
+    
+    /**
+     * Sort the table after a header click
+     * Only the table is reordered; the repository keeps its order.
+     */
+    private void sortByHeader(int column, boolean extend) {
+        long startTime = System.nanoTime();
+        if (column == EmployeeTableModel.COL_SERIAL) {
+            tableModel.setColumnSort(null);
+            updateStatus("Showing employees in list order.");
+        } else {
+            SortingSearchingAlgorithms.SortCriteria criteria = EmployeeTableModel.criteriaOf(column);
+            if (criteria == null) return;
+            MultiColumnSort current = tableModel.getColumnSort();
+            MultiColumnSort sort = current == null
+                ? MultiColumnSort.by(criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING)
+                : current.clicked(criteria, extend);
+            tableModel.setColumnSort(sort);
+            long duration = System.nanoTime() - startTime;
+            performanceHud.record("Sort", duration, tableModel.getRowCount() + " rows");
+            updateStatus(String.format("Sorted by %s (%.1f ms)", sort, duration / 1_000_000.0));
+        }
+        employeeTable.getTableHeader().repaint();
+    }
+    
+    /**
+     * Sort a copy of the employees, make it the display order and record how long it took
+     * Copy, sort and reorder happen under the write lock, so employees added
+     * meanwhile (e.g. by an import) can neither break the copy nor be dropped.
+     */
+    private void applySortOrder(Consumer<List<Employee>> sorter, SortingSearchingAlgorithms.SortCriteria criteria,
+                                SortingSearchingAlgorithms.SortOrder order) {
+        long startTime = System.nanoTime();
+        tableModel.setSortOrder(SortingSearchingAlgorithms.sortComparator(criteria, order));
+        int[] sorted = {0};
+        repository.write(() -> {
+            List<Employee> sortedEmployees = repository.snapshot();
+            sorter.accept(sortedEmployees);
+            repository.reorder(sortedEmployees);
+            sorted[0] = sortedEmployees.size();
+        });
+        employeeTable.getTableHeader().repaint(); // Header sort indicators no longer apply
+        performanceHud.record("Sort", System.nanoTime() - startTime, sorted[0] + " rows");
     }
     
     /**
@@ -607,12 +1244,8 @@ public class EmployeeManagementGUI extends JFrame {
     private void performQuickSort() {
         SortingSearchingAlgorithms.SortCriteria criteria = showSortCriteriaDialog();
         if (criteria != null) {
-            List<Employee> sortedEmployees = new ArrayList<>(employees);
-            SortingSearchingAlgorithms.quickSort(sortedEmployees, criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
-            
-            employees.clear();
-            employees.addAll(sortedEmployees);
-            refreshTable();
+            applySortOrder(sortedEmployees -> SortingSearchingAlgorithms.quickSort(sortedEmployees, criteria,
+                SortingSearchingAlgorithms.SortOrder.ASCENDING), criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
             updateStatus("Quick Sort completed by " + criteria);
         }
     }
@@ -623,12 +1256,8 @@ public class EmployeeManagementGUI extends JFrame {
     private void performMergeSort() {
         SortingSearchingAlgorithms.SortCriteria criteria = showSortCriteriaDialog();
         if (criteria != null) {
-            List<Employee> sortedEmployees = new ArrayList<>(employees);
-            SortingSearchingAlgorithms.mergeSort(sortedEmployees, criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
-            
-            employees.clear();
-            employees.addAll(sortedEmployees);
-            refreshTable();
+            applySortOrder(sortedEmployees -> SortingSearchingAlgorithms.mergeSort(sortedEmployees, criteria,
+                SortingSearchingAlgorithms.SortOrder.ASCENDING), criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
             updateStatus("Merge Sort completed by " + criteria);
         }
     }
@@ -639,12 +1268,8 @@ public class EmployeeManagementGUI extends JFrame {
     private void performHeapSort() {
         SortingSearchingAlgorithms.SortCriteria criteria = showSortCriteriaDialog();
         if (criteria != null) {
-            List<Employee> sortedEmployees = new ArrayList<>(employees);
-            SortingSearchingAlgorithms.heapSort(sortedEmployees, criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
-            
-            employees.clear();
-            employees.addAll(sortedEmployees);
-            refreshTable();
+            applySortOrder(sortedEmployees -> SortingSearchingAlgorithms.heapSort(sortedEmployees, criteria,
+                SortingSearchingAlgorithms.SortOrder.ASCENDING), criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
             updateStatus("Heap Sort completed by " + criteria);
         }
     }
@@ -655,12 +1280,8 @@ public class EmployeeManagementGUI extends JFrame {
     private void performInsertionSort() {
         SortingSearchingAlgorithms.SortCriteria criteria = showSortCriteriaDialog();
         if (criteria != null) {
-            List<Employee> sortedEmployees = new ArrayList<>(employees);
-            SortingSearchingAlgorithms.insertionSort(sortedEmployees, criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
-            
-            employees.clear();
-            employees.addAll(sortedEmployees);
-            refreshTable();
+            applySortOrder(sortedEmployees -> SortingSearchingAlgorithms.insertionSort(sortedEmployees, criteria,
+                SortingSearchingAlgorithms.SortOrder.ASCENDING), criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
             updateStatus("Insertion Sort completed by " + criteria);
         }
     }
@@ -669,23 +1290,23 @@ public class EmployeeManagementGUI extends JFrame {
      * Show sort criteria selection dialog
      */
     private SortingSearchingAlgorithms.SortCriteria showSortCriteriaDialog() {
-        JDialog criteriaDialog = new JDialog(this, "Select Sort Criteria", true);
-        criteriaDialog.setSize(300, 150);
+        if (criteriaDialog == null) {
+            criteriaDialog = new JDialog(this, "Select Sort Criteria", true);
+            criteriaDialog.setSize(300, 150);
+            criteriaDialog.setLayout(new GridLayout(3, 1, 10, 10));
+            
+            criteriaDialog.add(new JLabel("Select criteria to sort by:", JLabel.CENTER));
+            
+            criteriaDialogCombo = new JComboBox<>(SortingSearchingAlgorithms.SortCriteria.values());
+            criteriaDialog.add(criteriaDialogCombo);
+            
+            JButton okButton = new JButton("OK");
+            okButton.addActionListener(e -> criteriaDialog.setVisible(false));
+            criteriaDialog.add(okButton);
+        }
         criteriaDialog.setLocationRelativeTo(this);
-        criteriaDialog.setLayout(new GridLayout(3, 1, 10, 10));
-        
-        criteriaDialog.add(new JLabel("Select criteria to sort by:", JLabel.CENTER));
-        
-        JComboBox<SortingSearchingAlgorithms.SortCriteria> criteriaCombo = 
-            new JComboBox<>(SortingSearchingAlgorithms.SortCriteria.values());
-        criteriaDialog.add(criteriaCombo);
-        
-        JButton okButton = new JButton("OK");
-        okButton.addActionListener(e -> criteriaDialog.dispose());
-        criteriaDialog.add(okButton);
-        
         criteriaDialog.setVisible(true);
         
-        return (SortingSearchingAlgorithms.SortCriteria) criteriaCombo.getSelectedItem();
+        return (SortingSearchingAlgorithms.SortCriteria) criteriaDialogCombo.getSelectedItem();
     }
 }
@@ -1,6 +1,18 @@
 package employee;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.net.URI;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -10,50 +22,202 @@ import java.util.Scanner;
  */
 public class EmployeeManagementSystem {
 
-    private static LinkedList<Employee> employees = new LinkedList<>(); // Employee list
+    private static EmployeeRepository repository = new EmployeeRepository(); // Employee store
     private static Scanner scanner = new Scanner(System.in);            // Scanner for input
+    private static PayrollLedger ledger;                                 // Recorded bonuses and fines
+    private static final int PAGE_SIZE = 20;                             // Search results shown per page
 
+    /**
+     * Start the program
+     * "--gui" or "--cui" picks the interface without asking on the console.
+     * "--batch <script>" runs a command script ("-" or nothing for standard
+     * input) and exits with status 1 if any command failed; see BatchRunner.
+     * "--serve <port>" also offers the employees over HTTP (EmployeeApiServer);
+     * without an interface flag the program then only serves.
+     * "--load-test <url>[,<url>...] [clients] [seconds]" measures a running
+     * server with ApiLoadGenerator (default 1000 clients for 10 seconds).
+     */
     public static void main(String[] args) {
-        // Ask user to choose between GUI and CUI
-        System.out.println("===== Employee Management System =====");
-        System.out.println("Choose Interface:");
-        System.out.println("1. GUI (Graphical User Interface)");
-        System.out.println("2. CUI (Command Line Interface)");
-        System.out.print("👉 Choose option (1/2): ");
+        long launchNanos = System.nanoTime();
+        String interfaceChoice = null;
+        String batchScript = null;
+        int servePort = -1;
+        for (int i = 0; i < args.length; i++) {
+            // Optional values are only taken from tokens that are not options themselves
+            String value = optionValue(args, i);
+            switch (args[i]) {
+                case "--gui" -> interfaceChoice = "1";
+                case "--cui" -> interfaceChoice = "2";
+                case "--batch" -> {
+                    batchScript = value == null ? "-" : value;
+                    if (value != null) i++;
+                }
+                case "--serve" -> {
+                    servePort = value == null ? 8080 : parseNumber("--serve", value);
+                    if (servePort > 65535) usage("--serve expects a port from 0 to 65535, not " + servePort);
+                    if (value != null) i++;
+                }
+                case "--load-test" -> {
+                    if (value == null) usage("--load-test needs the URL(s) to request");
+                    String clients = optionValue(args, ++i);
+                    if (clients != null) i++;
+                    String seconds = clients == null ? null : optionValue(args, i);
+                    System.exit(runLoadTest(value,
+                                            clients == null ? 1000 : parseNumber("--load-test", clients),
+                                            seconds == null ? 10 : parseNumber("--load-test", seconds)));
+                }
+                default -> System.out.println("⚠ Unknown option ignored: " + args[i]);
+            }
+        }
+
+        if (servePort >= 0) {
+            if (interfaceChoice == null && batchScript == null) loadBonusPolicy(System.out);
+            if (!startApiServer(servePort)) System.exit(2);
+            if (interfaceChoice == null && batchScript == null) return; // The server keeps the program running
+        }
+        if (batchScript != null) System.exit(runBatch(batchScript));
         
-        String interfaceChoice = scanner.nextLine().trim();
+        if (interfaceChoice == null) {
+            // Ask user to choose between GUI and CUI
+            System.out.println("===== Employee Management System =====");
+            System.out.println("Choose Interface:");
+            System.out.println("1. GUI (Graphical User Interface)");
+            System.out.println("2. CUI (Command Line Interface)");
+            System.out.print("👉 Choose option (1/2): ");
+            
+            interfaceChoice = scanner.nextLine().trim();
+        }
         
         if ("1".equals(interfaceChoice)) {
-            // Launch GUI
+            // Launch GUI; the event dispatch thread keeps the program running
             System.out.println("Launching GUI...");
             javax.swing.SwingUtilities.invokeLater(() -> {
                 try {
-                    new EmployeeManagementGUI();
-                    System.out.println("GUI launched successfully!");
+                    new EmployeeManagementGUI(launchNanos, repository);
                 } catch (Exception e) {
                     System.out.println("Error launching GUI: " + e.getMessage());
                     e.printStackTrace();
                     System.out.println("Falling back to CUI...");
-                    runCUI();
+                    new Thread(EmployeeManagementSystem::runCUI, "cui").start();
                 }
             });
-            
-            // Keep the main thread alive for GUI
-            try {
-                Thread.sleep(1000); // Give GUI time to initialize
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
         } else {
             // Run CUI
             runCUI();
         }
     }
     
+    /**
+     * Value following the option at index i, or null if there is none or the
+     * next token is another option
+     */
+    private static String optionValue(String[] args, int i) {
+        return i + 1 < args.length && !args[i + 1].startsWith("--") ? args[i + 1] : null;
+    }
+
+    /**
+     * Parse a non-negative whole number given to an option, or exit with a usage message
+     */
+    private static int parseNumber(String option, String text) {
+        try {
+            int number = Integer.parseInt(text);
+            if (number >= 0) return number;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        usage(option + " expects a whole number, not \"" + text + "\"");
+        return -1; // Not reached
+    }
+
+    /**
+     * Print what went wrong and the accepted options, then exit with status 2
+     */
+    private static void usage(String problem) {
+        System.out.println("⚠ " + problem);
+        System.out.println("Usage: [--gui | --cui] [--batch [script | -]] [--serve [port]]");
+        System.out.println("       --load-test <url>[,<url>...] [clients] [seconds]");
+        System.exit(2);
+    }
+
+    /**
+     * Serve the employees over HTTP while the program runs
+     * Returns false if the port could not be opened.
+     */
+    private static boolean startApiServer(int port) {
+        try {
+            EmployeeApiServer server = new EmployeeApiServer(repository);
+            server.start(port);
+            System.out.println("🌐 Employee API listening on http://localhost:" + server.getPort() + "/employees");
+            return true;
+        } catch (IOException e) {
+            System.out.println("⚠ Could not start the employee API on port " + port + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Load-test a running API server and print the report
+     * Returns the exit status: 0 if no request failed.
+     */
+    private static int runLoadTest(String urls, int clients, int seconds) {
+        List<URI> targets = new ArrayList<>();
+        try {
+            for (String url : urls.split(",")) targets.add(URI.create(url.trim()));
+        } catch (IllegalArgumentException e) {
+            usage("--load-test got an invalid URL: " + e.getMessage());
+        }
+        System.out.println("Load test: " + clients + " clients for " + seconds + " s against " + targets);
+        try {
+            ApiLoadGenerator.Report report = ApiLoadGenerator.run(targets, clients, Duration.ofSeconds(seconds));
+            System.out.println(report);
+            return report.getErrors() == 0 ? 0 : 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
+    }
+
+    /**
+     * Run a batch script from a file or standard input ("-")
+     * Returns the exit status: 0 if every command succeeded.
+     */
+    private static int runBatch(String script) {
+        loadBonusPolicy(System.err);
+        try (BufferedReader in = "-".equals(script)
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Path.of(script))) {
+            return new BatchRunner(repository, System.out).run(in) == 0 ? 0 : 1;
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("⚠ Could not read batch script " + script + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Put the saved bonus policy in force, if there is one
+     */
+    private static void loadBonusPolicy(PrintStream messages) {
+        Path policyFile = Path.of(BonusPolicy.DEFAULT_FILE);
+        if (Files.exists(policyFile)) {
+            try {
+                repository.setBonusPolicy(BonusPolicy.load(policyFile));
+            } catch (IOException | IllegalArgumentException e) {
+                messages.println("⚠ Could not load bonus policy, using defaults: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Run the Command Line Interface
      */
     private static void runCUI() {
+        try {
+            ledger = new PayrollLedger(Path.of(PayrollLedger.DEFAULT_FILE));
+        } catch (IOException e) {
+            System.out.println("⚠ Could not open payroll ledger, entries will not be saved: " + e.getMessage());
+            ledger = PayrollLedger.inMemory();
+        }
+        loadBonusPolicy(System.out);
         while (true) {
             showMenu();
             String choice = scanner.nextLine().trim();
@@ -75,7 +239,14 @@ public class EmployeeManagementSystem {
                     }
                 }
 
-                case "8" -> {
+                case "8" -> bulkSalaryAdjustment();
+                case "9" -> {
+                    try {
+                        ledger.checkpoint();
+                        ledger.close();
+                    } catch (IOException e) {
+                        System.out.println("⚠ Could not checkpoint payroll ledger: " + e.getMessage());
+                    }
                     System.out.println("👋 Exiting program. Goodbye!");
                     System.exit(0);
                 }
@@ -96,7 +267,8 @@ public class EmployeeManagementSystem {
         System.out.println("5. View employee details");
         System.out.println("6. Save employee records to file");
         System.out.println("7. Manage Performance/Salary");
-        System.out.println("8. Exit");
+        System.out.println("8. Bulk salary adjustment");
+        System.out.println("9. Exit");
         System.out.print("👉 Choose option: ");
     }
 
@@ -106,8 +278,13 @@ public class EmployeeManagementSystem {
     private static void loadFromFile() {
         System.out.print("Enter filename: ");
         String filename = scanner.nextLine();
-        employees = FileHandler.loadEmployeesLinked(filename);
-        System.out.println("✅ Loaded " + employees.size() + " employee(s).");
+        EmployeeAggregates.Builder stats = new EmployeeAggregates.Builder();
+        repository.replaceAll(FileHandler.loadEmployeesLinked(filename, stats), stats);
+        System.out.println("✅ Loaded " + repository.size() + " employee(s).");
+        if (repository.size() > 0) {
+            double[] p = repository.getAggregates().getOverall().getTotalSalarySketch().quantiles(0.5, 0.9, 0.99);
+            System.out.printf("📊 Total salary P50: $%.2f | P90: $%.2f | P99: $%.2f%n", p[0], p[1], p[2]);
+        }
     }
 
     /**
@@ -116,7 +293,7 @@ public class EmployeeManagementSystem {
     private static void saveToFile() {
         System.out.print("Enter filename: ");
         String filename = scanner.nextLine();
-        FileHandler.saveEmployeesLinked(filename, employees);
+        FileHandler.saveEmployeesLinked(filename, repository.snapshot());
     }
 
     /**
@@ -162,7 +339,7 @@ public class EmployeeManagementSystem {
                 return;
             }
 
-            employees.add(emp);
+            repository.add(emp);
             System.out.println("✅ Employee added successfully.");
         } catch (NumberFormatException e) {
             System.out.println("⚠ Invalid input. Salary and rating must be numbers.");
@@ -182,17 +359,16 @@ public class EmployeeManagementSystem {
 
         System.out.print("New name (blank to keep): ");
         String name = scanner.nextLine().trim();
-        if (!name.isEmpty()) emp.setName(name);
 
         System.out.print("New department (blank to keep): ");
         String dept = scanner.nextLine().trim();
-        if (!dept.isEmpty()) emp.setDepartment(dept);
 
         System.out.print("New salary (blank to keep): ");
         String sal = scanner.nextLine().trim();
+        double newSalary = emp.getSalary();
         if (!sal.isEmpty()) {
             try {
-                emp.setSalary(Double.parseDouble(sal));
+                newSalary = Double.parseDouble(sal);
             } catch (NumberFormatException e) {
                 System.out.println("⚠ Invalid salary. Keeping old value.");
             }
@@ -200,15 +376,25 @@ public class EmployeeManagementSystem {
 
         System.out.print("New rating 1-5 (blank to keep): ");
         String rat = scanner.nextLine().trim();
+        int newRating = emp.getPerformanceRating();
         if (!rat.isEmpty()) {
             try {
                 int r = Integer.parseInt(rat);
-                if (r >= 1 && r <= 5) emp.setPerformanceRating(r);
+                if (r >= 1 && r <= 5) newRating = r;
                 else System.out.println("⚠ Invalid rating. Keeping old value.");
             } catch (NumberFormatException e) {
                 System.out.println("⚠ Invalid input. Keeping old value.");
             }
         }
+
+        double salary = newSalary;
+        int rating = newRating;
+        repository.update(emp, e -> {
+            if (!name.isEmpty()) e.setName(name);
+            if (!dept.isEmpty()) e.setDepartment(dept);
+            e.setSalary(salary);
+            e.setPerformanceRating(rating);
+        });
         System.out.println("✅ Employee updated successfully.");
     }
 
@@ -222,7 +408,7 @@ public class EmployeeManagementSystem {
             System.out.println("⚠ Employee not found.");
             return;
         }
-        employees.remove(emp);
+        repository.remove(emp);
         System.out.println("✅ Employee deleted successfully.");
     }
 
@@ -235,6 +421,7 @@ public class EmployeeManagementSystem {
         String opt = scanner.nextLine().trim();
 
         LinkedList<Employee> results = new LinkedList<>();
+        EmployeeQuery query = null;
 
         switch (opt) {
             case "1" -> {
@@ -247,34 +434,23 @@ public class EmployeeManagementSystem {
                     
                     // Encapsulation demo
                     System.out.println("Salary before bonus: " + emp.getSalary());
-                    emp.setSalary(emp.getSalary() + 500);  // example bonus
+                    repository.update(emp, e -> e.setSalary(e.getSalary() + 500));  // example bonus
                     System.out.println("Salary after bonus: " + emp.getSalary());
                 } else System.out.println("⚠ Employee not found.");
             }
             case "2" -> {
                 System.out.print("Enter Employee Name (keyword): ");
-                String name = scanner.nextLine().trim().toLowerCase();
-                for (Employee emp : employees) {
-                    if (emp.getName().toLowerCase().contains(name)) {
-                        printEmployee(emp);
-                        results.add(emp);
-                    }
-                }
-                if (results.isEmpty()) System.out.println("⚠ No employees found.");
+                query = EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.NAME, scanner.nextLine().trim());
             }
             case "3" -> {
                 System.out.print("Enter minimum performance rating (1-5): ");
                 try {
                     int rating = Integer.parseInt(scanner.nextLine().trim());
-                    for (Employee emp : employees) {
-                        if (emp.getPerformanceRating() >= rating) {
-                            printEmployee(emp);
-                            results.add(emp);
-                        }
-                    }
-                    if (results.isEmpty()) System.out.println("⚠ No employees found.");
+                    query = EmployeeQuery.between(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING,
+                                                  rating, Integer.MAX_VALUE);
                 } catch (NumberFormatException e) {
                     System.out.println("⚠ Invalid rating input.");
+                    return;
                 }
             }
             default -> {
@@ -283,17 +459,55 @@ public class EmployeeManagementSystem {
             }
         }
 
-        // Save query results to file
-        if (!results.isEmpty()) {
+        // Save query results to file; matches are only collected if they are saved
+        boolean found = query == null ? !results.isEmpty() : pageResults(query);
+        if (found) {
             System.out.print("Save results to file? (y/n): ");
             if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
                 System.out.print("Enter filename: ");
                 String filename = scanner.nextLine().trim();
-                FileHandler.saveQueryResults(results, filename);
+                if (query == null) {
+                    FileHandler.saveQueryResults(results, filename);
+                } else {
+                    exportQueryResults(query, filename);
+                }
             }
         }
     }
 
+    /**
+     * Stream the matches of a query to a file; the format follows the extension
+     */
+    private static void exportQueryResults(EmployeeQuery query, String filename) {
+        try {
+            long written = QueryExporter.export(repository, query, Path.of(filename),
+                                                QueryExporter.Format.forFile(filename), FileHandler.Progress.NONE);
+            System.out.println("✅ " + written + " query result(s) saved to " + filename);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("⚠ Error saving query results to " + filename);
+        }
+    }
+
+    /**
+     * Print the matches of a query one page at a time
+     * Returns false if nothing matched.
+     */
+    private static boolean pageResults(EmployeeQuery query) {
+        QueryCursor cursor = QueryCursor.open(repository, query);
+        System.out.println("About " + cursor.estimateCount() + " match(es).");
+        int shown = 0;
+        while (true) {
+            List<Employee> page = cursor.next(PAGE_SIZE);
+            for (Employee emp : page) printEmployee(emp);
+            shown += page.size();
+            if (!cursor.hasMore()) break;
+            System.out.print("-- " + shown + " shown. Enter for more, q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) break;
+        }
+        if (shown == 0) System.out.println("⚠ No employees found.");
+        return shown > 0;
+    }
+
     /**
      * Manage performance and salary of an employee
      */
@@ -320,6 +534,16 @@ public class EmployeeManagementSystem {
 
         switch(choice) {
             case "1": // Bonus applied automatically
+                if (ledger.hasBonusIn(emp.getId(), YearMonth.now())) {
+                    System.out.println("⚠ The automatic bonus was already recorded for " + YearMonth.now() + ".");
+                    break;
+                }
+                try {
+                    ledger.recordBonus(emp, Money.toCents(autoBonus));
+                } catch (IOException e) {
+                    System.out.println("⚠ Could not record bonus: " + e.getMessage());
+                    break;
+                }
                 System.out.println("💰 Automatic bonus applied: " + autoBonus);
                 System.out.println("💰 Total Salary (Base + Bonus): " + totalSalary);
                 break;
@@ -327,16 +551,29 @@ public class EmployeeManagementSystem {
                 try {
                     System.out.print("Enter fine amount: ");
                     double fine = Double.parseDouble(scanner.nextLine().trim());
+                    if (fine < 0) {
+                        System.out.println("⚠ Fine amount cannot be negative.");
+                        break;
+                    }
                     double salaryAfterFine = totalSalary - fine;
+                    ledger.recordFine(emp, Money.toCents(fine));
                     System.out.println("⚠ Fine applied: " + fine);
                     System.out.println("💰 Total Salary after fine: " + salaryAfterFine);
                 } catch (NumberFormatException e) {
                     System.out.println("⚠ Invalid amount entered.");
+                } catch (IOException e) {
+                    System.out.println("⚠ Could not record fine: " + e.getMessage());
                 }
                 break;
             default:
                 System.out.println("⚠ Invalid option.");
         }
+
+        // Running totals from the ledger
+        PayrollLedger.Totals recorded = ledger.getTotals(emp.getId());
+        System.out.println("📒 Recorded bonuses: " + Money.format(recorded.getBonusCents()) +
+                           ", fines: " + Money.format(recorded.getFineCents()) +
+                           ", net pay: " + Money.format(ledger.getNetPayCents(emp)));
     }
 
 
@@ -345,14 +582,44 @@ public class EmployeeManagementSystem {
 
     
 
+    /**
+     * Apply a percentage raise to many employees at once
+     */
+    private static void bulkSalaryAdjustment() {
+        try {
+            System.out.println("Condition examples: DEPARTMENT=Finance; PERFORMANCE_RATING>=4  (blank = everyone)");
+            System.out.print("Condition: ");
+            EmployeeQuery condition = SalaryAdjustment.parseCondition(scanner.nextLine());
+            System.out.print("Raise for matching employees (%): ");
+            double percent = Double.parseDouble(scanner.nextLine().trim());
+
+            SalaryAdjustment adjustment = condition == null
+                ? new SalaryAdjustment().otherwise(percent)
+                : new SalaryAdjustment().when(condition, percent);
+            if (condition != null) {
+                System.out.print("Raise for everyone else (%, blank for none): ");
+                String others = scanner.nextLine().trim();
+                if (!others.isEmpty()) adjustment.otherwise(Double.parseDouble(others));
+            }
+
+            System.out.print("Apply " + adjustment.describe() + "? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) return;
+
+            SalaryAdjustment.Result result = adjustment.apply(repository, Path.of(SalaryAdjustment.DEFAULT_LOG));
+            System.out.println("✅ Adjusted " + result.getEmployeeCount() + " salaries. Base payroll change: " +
+                               Money.format(result.getDeltaCents()));
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠ Invalid adjustment: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("⚠ Salaries adjusted, but the log could not be written: " + e.getMessage());
+        }
+    }
+
     /**
      * Find employee by ID
      */
     private static Employee findEmployeeById(String id) {
-        for (Employee emp : employees) {
-            if (emp.getId().equalsIgnoreCase(id)) return emp;
-        }
-        return null;
+        return repository.findById(id);
     }
 
     /**
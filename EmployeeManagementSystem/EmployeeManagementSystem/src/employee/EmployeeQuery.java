@@ -0,0 +1,361 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Employee Query
+ * Typed query builder over Employee fields (eq, contains, between, in, and, or).
+ * A query is compiled once into a single Predicate that reads fields directly:
+ * numbers are compared as numbers and text is matched ignoring case without
+ * converting or lowercasing values, so evaluating it allocates nothing.
+ *
+ * Example: and(eq(EMPLOYEE_TYPE, "Manager"), between(PERFORMANCE_RATING, 4, 5))
+ */
+public abstract class EmployeeQuery {
+
+    /**
+     * Compile this query into a predicate
+     */
+    public abstract Predicate<Employee> compile();
+
+    /**
+     * Test an index key (lowercase text form of a value) against this query.
+     * Only meaningful for single-field queries; used to probe value indexes.
+     */
+    public abstract boolean matchesKey(String key);
+
+    /**
+     * Field tested by this query, or null for and/or combinations
+     */
+    public SortingSearchingAlgorithms.SortCriteria getField() { return null; }
+
+    /**
+     * Evaluate this query on value indexes only
+     * Returns null if a field involved is not indexed.
+     */
+    EmployeeBitmap evaluate(EmployeeIndexes indexes) {
+        EmployeeIndexes.ValueIndex index = indexes.index(getField());
+        return index == null ? null : index.match(this);
+    }
+
+    // ---------------- Builders ----------------
+
+    /**
+     * Field equals value (ignoring case for text; numerically for numbers)
+     */
+    public static EmployeeQuery eq(SortingSearchingAlgorithms.SortCriteria field, Object value) {
+        return in(field, value);
+    }
+
+    /**
+     * Text field contains the term, ignoring case
+     * On numeric fields this is an equality test on the parsed number.
+     */
+    public static EmployeeQuery contains(SortingSearchingAlgorithms.SortCriteria field, String term) {
+        if (SortingSearchingAlgorithms.isNumeric(field)) return eq(field, term);
+        return new Contains(field, term);
+    }
+
+    /**
+     * Numeric field within [min, max] inclusive
+     */
+    public static EmployeeQuery between(SortingSearchingAlgorithms.SortCriteria field, double min, double max) {
+        return new Between(field, min, max);
+    }
+
+    /**
+     * Field equals any of the values
+     */
+    public static EmployeeQuery in(SortingSearchingAlgorithms.SortCriteria field, Object... values) {
+        return new In(field, values);
+    }
+
+    /**
+     * All queries match
+     */
+    public static EmployeeQuery and(EmployeeQuery... queries) {
+        return new Junction(true, queries);
+    }
+
+    /**
+     * At least one query matches
+     */
+    public static EmployeeQuery or(EmployeeQuery... queries) {
+        return new Junction(false, queries);
+    }
+
+    /**
+     * Query for a search term typed by the user:
+     * text fields use contains, numeric fields use equality on the parsed number
+     */
+    public static EmployeeQuery matching(SortingSearchingAlgorithms.SortCriteria field, String term) {
+        return contains(field, term.trim());
+    }
+
+    // ---------------- Field access ----------------
+
+    /**
+     * Text value of a field without copying
+     */
+    static String text(Employee emp, SortingSearchingAlgorithms.SortCriteria field) {
+        switch (field) {
+            case ID: return emp.getId();
+            case NAME: return emp.getName();
+            case DEPARTMENT: return emp.getDepartment();
+            case EMPLOYEE_TYPE: return emp.getClass().getSimpleName();
+            default: throw new IllegalArgumentException(field + " is not a text field");
+        }
+    }
+
+    /**
+     * Numeric accessor for a field, chosen once at compile time
+     */
+    static ToDoubleFunction<Employee> numericAccessor(SortingSearchingAlgorithms.SortCriteria field) {
+        switch (field) {
+            case SALARY: return Employee::getSalary;
+            case PERFORMANCE_RATING: return Employee::getPerformanceRating;
+            case TOTAL_SALARY: return Employee::calculateSalary;
+            default: throw new IllegalArgumentException(field + " is not a numeric field");
+        }
+    }
+
+    /**
+     * Case-insensitive substring test without allocating
+     */
+    static boolean containsIgnoreCase(String value, String term) {
+        int max = value.length() - term.length();
+        for (int i = 0; i <= max; i++) {
+            if (value.regionMatches(true, i, term, 0, term.length())) return true;
+        }
+        return false;
+    }
+
+    private static double toNumber(Object value) {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        try {
+            return Double.parseDouble(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN; // Never equal to anything
+        }
+    }
+
+    // ---------------- Query nodes ----------------
+
+    private static final class Contains extends EmployeeQuery {
+        private final SortingSearchingAlgorithms.SortCriteria field;
+        private final String term;
+
+        Contains(SortingSearchingAlgorithms.SortCriteria field, String term) {
+            this.field = field;
+            this.term = term;
+        }
+
+        @Override
+        public Predicate<Employee> compile() {
+            String t = term;
+            switch (field) {
+                case ID: return emp -> containsIgnoreCase(emp.getId(), t);
+                case NAME: return emp -> containsIgnoreCase(emp.getName(), t);
+                case DEPARTMENT: return emp -> containsIgnoreCase(emp.getDepartment(), t);
+                default: return emp -> containsIgnoreCase(text(emp, field), t);
+            }
+        }
+
+        @Override
+        public boolean matchesKey(String key) {
+            return containsIgnoreCase(key, term);
+        }
+
+        @Override
+        public SortingSearchingAlgorithms.SortCriteria getField() { return field; }
+
+        @Override
+        public String toString() { return field + " contains '" + term + "'"; }
+    }
+
+    private static final class Between extends EmployeeQuery {
+        private final SortingSearchingAlgorithms.SortCriteria field;
+        private final double min;
+        private final double max;
+
+        Between(SortingSearchingAlgorithms.SortCriteria field, double min, double max) {
+            if (!SortingSearchingAlgorithms.isNumeric(field)) {
+                throw new IllegalArgumentException(field + " is not a numeric field");
+            }
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public Predicate<Employee> compile() {
+            ToDoubleFunction<Employee> accessor = numericAccessor(field);
+            double lo = min, hi = max;
+            return emp -> {
+                double value = accessor.applyAsDouble(emp);
+                return value >= lo && value <= hi;
+            };
+        }
+
+        @Override
+        public boolean matchesKey(String key) {
+            double value = toNumber(key);
+            return value >= min && value <= max;
+        }
+
+        @Override
+        public SortingSearchingAlgorithms.SortCriteria getField() { return field; }
+
+        @Override
+        public String toString() { return field + " between " + min + " and " + max; }
+    }
+
+    private static final class In extends EmployeeQuery {
+        private final SortingSearchingAlgorithms.SortCriteria field;
+        private final Object[] values;
+
+        In(SortingSearchingAlgorithms.SortCriteria field, Object[] values) {
+            this.field = field;
+            this.values = values.clone();
+        }
+
+        @Override
+        public Predicate<Employee> compile() {
+            if (SortingSearchingAlgorithms.isNumeric(field)) {
+                ToDoubleFunction<Employee> accessor = numericAccessor(field);
+                double[] numbers = numbers();
+                if (numbers.length == 1) {
+                    double number = numbers[0];
+                    return emp -> accessor.applyAsDouble(emp) == number;
+                }
+                return emp -> Arrays.binarySearch(numbers, accessor.applyAsDouble(emp)) >= 0;
+            }
+
+            String[] texts = texts();
+            if (texts.length == 1) {
+                String text = texts[0];
+                return emp -> text(emp, field).equalsIgnoreCase(text);
+            }
+            return emp -> {
+                String value = text(emp, field);
+                for (String text : texts) {
+                    if (value.equalsIgnoreCase(text)) return true;
+                }
+                return false;
+            };
+        }
+
+        @Override
+        public boolean matchesKey(String key) {
+            if (SortingSearchingAlgorithms.isNumeric(field)) {
+                return Arrays.binarySearch(numbers(), toNumber(key)) >= 0;
+            }
+            for (String text : texts()) {
+                if (key.equalsIgnoreCase(text)) return true;
+            }
+            return false;
+        }
+
+        private double[] numbers() {
+            double[] numbers = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                numbers[i] = toNumber(values[i]);
+            }
+            Arrays.sort(numbers);
+            return numbers;
+        }
+
+        private String[] texts() {
+            String[] texts = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                texts[i] = String.valueOf(values[i]).trim();
+            }
+            return texts;
+        }
+
+        @Override
+        public SortingSearchingAlgorithms.SortCriteria getField() { return field; }
+
+        @Override
+        public String toString() {
+            return values.length == 1 ? field + " = " + values[0] : field + " in " + Arrays.toString(values);
+        }
+    }
+
+    private static final class Junction extends EmployeeQuery {
+        private final boolean all;
+        private final List<EmployeeQuery> queries;
+
+        Junction(boolean all, EmployeeQuery[] queries) {
+            this.all = all;
+            this.queries = new ArrayList<>(Arrays.asList(queries));
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Predicate<Employee> compile() {
+            Predicate<Employee>[] compiled = new Predicate[queries.size()];
+            for (int i = 0; i < compiled.length; i++) {
+                compiled[i] = queries.get(i).compile();
+            }
+            if (compiled.length == 0) return emp -> all;
+            if (compiled.length == 1) return compiled[0];
+            if (compiled.length == 2) {
+                Predicate<Employee> first = compiled[0], second = compiled[1];
+                return all ? emp -> first.test(emp) && second.test(emp)
+                           : emp -> first.test(emp) || second.test(emp);
+            }
+            if (all) {
+                return emp -> {
+                    for (Predicate<Employee> p : compiled) {
+                        if (!p.test(emp)) return false;
+                    }
+                    return true;
+                };
+            }
+            return emp -> {
+                for (Predicate<Employee> p : compiled) {
+                    if (p.test(emp)) return true;
+                }
+                return false;
+            };
+        }
+
+        @Override
+        EmployeeBitmap evaluate(EmployeeIndexes indexes) {
+            EmployeeBitmap result = null;
+            for (EmployeeQuery query : queries) {
+                EmployeeBitmap bitmap = query.evaluate(indexes);
+                if (bitmap == null) return null;
+                if (result == null) {
+                    result = bitmap;
+                } else {
+                    result = all ? EmployeeBitmap.and(result, bitmap) : EmployeeBitmap.or(result, bitmap);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean matchesKey(String key) {
+            for (EmployeeQuery query : queries) {
+                if (query.matchesKey(key) != all) return !all;
+            }
+            return all;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("(");
+            for (int i = 0; i < queries.size(); i++) {
+                if (i > 0) sb.append(all ? " AND " : " OR ");
+                sb.append(queries.get(i));
+            }
+            return sb.append(')').toString();
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package employee;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Employee Repository
+ * Owns the employee list and is the single place where employees are added,
+ * updated and removed. Every mutation is announced to the registered listeners
+ * so that derived structures (sorted views, indexes) can patch themselves.
+ * Mutations hold a write lock while they change the data and notify listeners;
+ * code on other threads reads through {@link #read} or {@link #snapshot} to see
+ * either the state before or after a mutation, never a mix.
+ */
+public class EmployeeRepository {
+
+    /**
+     * Kind of change announced to listeners
+     * REPRICED: total salaries changed (new bonus policy) but no stored field did.
+     */
+    public enum ChangeType {
+        ADDED, UPDATED, REMOVED, REORDERED, RELOADED, REPRICED
+    }
+
+    /**
+     * Describes one mutation of the repository.
+     * For UPDATED events {@code before} holds detached copies of the employees
+     * as they were before the change, in the same order as {@code employees}.
+     */
+    public static class ChangeEvent {
+        private final ChangeType type;
+        private final List<Employee> employees;
+        private final List<Employee> before;
+
+        public ChangeEvent(ChangeType type, List<Employee> employees, List<Employee> before) {
+            this.type = type;
+            this.employees = employees;
+            this.before = before;
+        }
+
+        public ChangeType getType() { return type; }
+        public List<Employee> getEmployees() { return employees; }
+        public List<Employee> getBefore() { return before; }
+    }
+
+    /**
+     * Listener notified after every repository mutation
+     */
+    public interface ChangeListener {
+        void employeesChanged(ChangeEvent event);
+    }
+
+    private final ArrayList<Employee> employees = new ArrayList<>();
+    private final Map<String, Employee> employeesById = new HashMap<>();
+    private final List<ChangeListener> listeners = new ArrayList<>();
+    private final SortedEmployeeViews sortedViews;
+    private final EmployeeIndexes indexes;
+    private final EmployeeAggregates aggregates;
+    private long version;
+
+    // Ordinals: a stable small integer per employee, used as bit position by indexes
+    private final ArrayList<Employee> slots = new ArrayList<>();
+    private final Map<Employee, Integer> ordinals = new IdentityHashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public EmployeeRepository() {
+        sortedViews = new SortedEmployeeViews(this);
+        indexes = new EmployeeIndexes(this);
+        aggregates = new EmployeeAggregates(this);
+        addChangeListener(sortedViews);
+        addChangeListener(indexes);
+        addChangeListener(aggregates);
+    }
+
+    // ---------------- Listeners ----------------
+    public void addChangeListener(ChangeListener listener) { listeners.add(listener); }
+    public void removeChangeListener(ChangeListener listener) { listeners.remove(listener); }
+
+    // ---------------- Queries ----------------
+
+    /**
+     * Read-only view of all employees in display order
+     * This is the live list: use it only inside {@link #read}, a mutation or a
+     * listener. Other code takes a {@link #snapshot} instead.
+     */
+    public List<Employee> getEmployees() {
+        return Collections.unmodifiableList(employees);
+    }
+
+    public int size() { return employees.size(); }
+
+    /**
+     * Run a read-only action while no mutation is in progress
+     */
+    public <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Consistent copy of all employees in display order
+     */
+    public List<Employee> snapshot() {
+        return read(() -> new ArrayList<>(employees));
+    }
+
+    /**
+     * Consistent detached copies of all employees in display order
+     * Later edits do not reach the copies, e.g. while they are written to a file.
+     */
+    public List<Employee> detachedSnapshot() {
+        return read(() -> {
+            List<Employee> copies = new ArrayList<>(employees.size());
+            for (Employee emp : employees) copies.add(emp.copy());
+            return copies;
+        });
+    }
+
+    /**
+     * Incremented on every mutation; lets callers detect stale copies
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Find employee by ID (case-insensitive) in O(1)
+     */
+    public Employee findById(String id) {
+        if (id == null) return null;
+        return employeesById.get(id.toLowerCase());
+    }
+
+    /**
+     * Sorted views of the employees, one per sort criteria
+     */
+    public SortedEmployeeViews getSortedViews() { return sortedViews; }
+
+    /**
+     * Value indexes keyed by employee ordinal
+     */
+    public EmployeeIndexes getIndexes() { return indexes; }
+
+    /**
+     * Per-department and per-type statistics, kept current on every mutation
+     */
+    public EmployeeAggregates getAggregates() { return aggregates; }
+
+    /**
+     * Ordinal of a stored employee, or -1 if it is not in the repository
+     * Ordinals stay fixed while the employee is stored and are reused after removal.
+     */
+    public int ordinalOf(Employee emp) {
+        Integer ordinal = ordinals.get(emp);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Employee stored under an ordinal, or null for a free slot
+     */
+    public Employee employeeAt(int ordinal) {
+        return ordinal < slots.size() ? slots.get(ordinal) : null;
+    }
+
+    /**
+     * Upper bound (exclusive) of all ordinals currently in use
+     */
+    public int ordinalLimit() { return slots.size(); }
+
+    // ---------------- Mutations ----------------
+
+    /**
+     * Run several mutations as one transaction
+     * The write lock is held throughout, so readers see the state before or
+     * after all of them. Listeners still receive one event per mutation.
+     */
+    public void write(Runnable mutations) {
+        lock.writeLock().lock();
+        try {
+            mutations.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a new employee
+     * Returns false if another employee already uses the same ID.
+     */
+    public boolean add(Employee emp) {
+        lock.writeLock().lock();
+        try {
+            String key = emp.getId().toLowerCase();
+            if (employeesById.containsKey(key)) return false;
+            employees.add(emp);
+            employeesById.put(key, emp);
+            assignOrdinal(emp);
+            fire(ChangeType.ADDED, List.of(emp), null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add several new employees as one step
+     * The additions are announced as a single ADDED event. Employees whose ID
+     * is already in use are skipped. Returns the number of employees added.
+     */
+    public int addAll(Collection<Employee> toAdd) {
+        lock.writeLock().lock();
+        try {
+            List<Employee> added = new ArrayList<>(toAdd.size());
+            for (Employee emp : toAdd) {
+                if (employeesById.putIfAbsent(emp.getId().toLowerCase(), emp) == null) {
+                    employees.add(emp);
+                    assignOrdinal(emp);
+                    added.add(emp);
+                }
+            }
+            if (added.isEmpty()) return 0;
+            fire(ChangeType.ADDED, Collections.unmodifiableList(added), null);
+            return added.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply changes to an employee and announce them
+     * The previous state is captured so listeners can locate old index entries.
+     */
+    public void update(Employee emp, Consumer<Employee> changes) {
+        updateAll(List.of(emp), (target, index) -> changes.accept(target));
+    }
+
+    /**
+     * Apply changes to several employees as one atomic step
+     * All changes are made under one write lock and announced as a single
+     * UPDATED event, so readers and listeners see all of them or none.
+     * The change receives each employee together with its index in targets.
+     */
+    public void updateAll(List<Employee> targets, ObjIntConsumer<Employee> changes) {
+        updateAll(targets, changes, -1);
+    }
+
+    /**
+     * Apply changes to several employees atomically, but only if the repository
+     * is still at the expected version (-1 to skip the check)
+     * Returns false without changing anything if another mutation came first.
+     * Throws IllegalArgumentException, again without changing anything, if a
+     * change would give an employee an ID that is already in use.
+     */
+    public boolean updateAll(List<Employee> targets, ObjIntConsumer<Employee> changes, long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            if (expectedVersion >= 0 && expectedVersion != version) return false;
+            Map<String, Employee> renamed = renamedIds(targets, changes);
+            List<Employee> befores = new ArrayList<>(targets.size());
+            for (int i = 0; i < targets.size(); i++) {
+                Employee emp = targets.get(i);
+                befores.add(emp.copy());
+                changes.accept(emp, i);
+            }
+            // Re-key in two passes so employees may swap IDs within one update
+            for (int i = 0; i < targets.size(); i++) {
+                String oldId = befores.get(i).getId();
+                if (!oldId.equalsIgnoreCase(targets.get(i).getId())) employeesById.remove(oldId.toLowerCase());
+            }
+            employeesById.putAll(renamed);
+            fire(ChangeType.UPDATED, Collections.unmodifiableList(new ArrayList<>(targets)),
+                 Collections.unmodifiableList(befores));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * New IDs (lower case) of the targets whose ID the changes would alter
+     * The changes are tried on copies, so nothing is modified. Throws
+     * IllegalArgumentException if a new ID is taken by an employee that keeps it.
+     */
+    private Map<String, Employee> renamedIds(List<Employee> targets, ObjIntConsumer<Employee> changes) {
+        Map<String, Employee> renamed = new HashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            Employee emp = targets.get(i);
+            Employee probe = emp.copy();
+            changes.accept(probe, i);
+            if (probe.getId().equalsIgnoreCase(emp.getId())) continue;
+            if (renamed.put(probe.getId().toLowerCase(), emp) != null) {
+                throw new IllegalArgumentException("Employee ID already exists: " + probe.getId());
+            }
+        }
+        if (renamed.isEmpty()) return renamed;
+        Set<Employee> renaming = Collections.newSetFromMap(new IdentityHashMap<>());
+        renaming.addAll(renamed.values());
+        for (String key : renamed.keySet()) {
+            Employee holder = employeesById.get(key);
+            if (holder != null && !renaming.contains(holder)) {
+                throw new IllegalArgumentException("Employee ID already exists: " + key);
+            }
+        }
+        return renamed;
+    }
+
+    /**
+     * Remove an employee
+     * Returns false if the employee was not stored in this repository.
+     */
+    public boolean remove(Employee emp) {
+        lock.writeLock().lock();
+        try {
+            if (employeesById.get(emp.getId().toLowerCase()) != emp) return false;
+            employees.remove(emp);
+            employeesById.remove(emp.getId().toLowerCase());
+            fire(ChangeType.REMOVED, List.of(emp), null);
+            releaseOrdinal(emp);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove several employees as one step
+     * The list is compacted in one pass and the removal is announced as a
+     * single REMOVED event. Employees not stored here are ignored.
+     * Returns the number of employees removed.
+     */
+    public int removeAll(Collection<Employee> toRemove) {
+        lock.writeLock().lock();
+        try {
+            Set<Employee> removing = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Employee emp : toRemove) {
+                if (employeesById.get(emp.getId().toLowerCase()) == emp) removing.add(emp);
+            }
+            if (removing.isEmpty()) return 0;
+            employees.removeIf(removing::contains);
+            for (Employee emp : removing) employeesById.remove(emp.getId().toLowerCase());
+            List<Employee> removed = new ArrayList<>(removing);
+            fire(ChangeType.REMOVED, Collections.unmodifiableList(removed), null);
+            for (Employee emp : removed) releaseOrdinal(emp);
+            return removed.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change the display order without changing the set of employees
+     * Returns false without changing anything if the list is not exactly the
+     * stored employees, e.g. a sorted snapshot taken before another thread
+     * added or removed some.
+     */
+    public boolean reorder(List<Employee> ordered) {
+        lock.writeLock().lock();
+        try {
+            if (ordered.size() != employees.size()) return false;
+            BitSet seen = new BitSet(slots.size());
+            for (Employee emp : ordered) {
+                int ordinal = ordinalOf(emp);
+                if (ordinal < 0 || seen.get(ordinal)) return false;
+                seen.set(ordinal);
+            }
+            employees.clear();
+            employees.addAll(ordered);
+            fire(ChangeType.REORDERED, Collections.unmodifiableList(employees), null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all employees, e.g. after loading a file
+     * Employees with a duplicate ID are skipped.
+     */
+    public void replaceAll(Collection<Employee> loaded) {
+        replaceAll(loaded, null);
+    }
+
+    /**
+     * Replace all employees with statistics already collected during the load
+     * The statistics are used only if no employee had to be skipped.
+     */
+    public void replaceAll(Collection<Employee> loaded, EmployeeAggregates.Builder loadedAggregates) {
+        lock.writeLock().lock();
+        try {
+            employees.clear();
+            employeesById.clear();
+            slots.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            for (Employee emp : loaded) {
+                if (employeesById.putIfAbsent(emp.getId().toLowerCase(), emp) == null) {
+                    employees.add(emp);
+                    assignOrdinal(emp);
+                }
+            }
+            if (loadedAggregates != null && employees.size() == loaded.size()) {
+                aggregates.adopt(loadedAggregates);
+            }
+            fire(ChangeType.RELOADED, Collections.unmodifiableList(employees), null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Put a new bonus policy in force and re-evaluate every total salary
+     * Cached totals are recomputed in parallel, then the change is announced as
+     * REPRICED: any employee's total salary may have changed, but IDs, ordinals
+     * and every other field stay as they were.
+     */
+    public void setBonusPolicy(BonusPolicy policy) {
+        lock.writeLock().lock();
+        try {
+            BonusPolicy.setCurrent(policy);
+            employees.parallelStream().forEach(Employee::calculateSalary);
+            fire(ChangeType.REPRICED, Collections.unmodifiableList(employees), null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void assignOrdinal(Employee emp) {
+        Integer ordinal = freeOrdinals.pollFirst();
+        if (ordinal == null) {
+            ordinal = slots.size();
+            slots.add(emp);
+        } else {
+            slots.set(ordinal, emp);
+        }
+        ordinals.put(emp, ordinal);
+    }
+
+    private void releaseOrdinal(Employee emp) {
+        Integer ordinal = ordinals.remove(emp);
+        if (ordinal != null) {
+            slots.set(ordinal, null);
+            freeOrdinals.addFirst(ordinal);
+        }
+    }
+
+    private void fire(ChangeType type, List<Employee> changed, List<Employee> before) {
+        version++;
+        ChangeEvent event = new ChangeEvent(type, changed, before);
+        for (ChangeListener listener : listeners) {
+            listener.employeesChanged(event);
+        }
+    }
+}
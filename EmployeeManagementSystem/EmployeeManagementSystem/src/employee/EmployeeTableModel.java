@@ -0,0 +1,495 @@
+package employee;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Employee Table Model
+ * Table model for the main employee table that reads cells straight from the
+ * employee objects instead of copying them into row arrays. Only the rows the
+ * table actually paints are read, and salaries are returned as numbers and
+ * formatted by {@link CurrencyRenderer}.
+ *
+ * The model listens to the repository and patches its rows in place: an add,
+ * update or delete fires an insert, update or delete event for the affected
+ * row only, keeping the active filter and sort order. Changes to many
+ * employees at once, reorders and reloads rebuild the rows with one event.
+ *
+ * Header clicks sort the rows with a {@link MultiColumnSort}, which orders them
+ * from cached ranks instead of comparing employees; the sort stays in force
+ * while rows are patched, filtered or rebuilt.
+ *
+ * The row of each shown employee is kept by repository ordinal, so finding
+ * the row of an updated or deleted employee does not scan the rows.
+ *
+ * Ticked Select boxes are kept as a bitmap of repository ordinals, so ticking,
+ * looking up and counting selected employees never walks the rows, and ticks
+ * stay with their employees when the filter or sort order changes.
+ */
+public class EmployeeTableModel extends AbstractTableModel implements EmployeeRepository.ChangeListener {
+
+    public static final int COL_SERIAL = 0;
+    public static final int COL_SELECT = 1;
+    public static final int COL_TYPE = 2;
+    public static final int COL_ID = 3;
+    public static final int COL_NAME = 4;
+    public static final int COL_DEPARTMENT = 5;
+    public static final int COL_BASE_SALARY = 6;
+    public static final int COL_RATING = 7;
+    public static final int COL_TOTAL_SALARY = 8;
+
+    private static final String[] COLUMN_NAMES =
+        {"S.N.", "Select", "Type", "ID", "Name", "Department", "Base Salary", "Rating", "Total Salary"};
+
+    /** Above this many changed or added employees the rows are rebuilt instead of patched */
+    private static final int PATCH_LIMIT = 64;
+
+    private final EmployeeRepository repository;
+    private ArrayList<Employee> rows = new ArrayList<>();
+    private Predicate<Employee> filter;           // null = all employees
+    private Comparator<Employee> sortOrder;       // null = repository order
+    private MultiColumnSort columnSort;           // Header sort behind sortOrder, if any
+    private final BitSet checked = new BitSet();  // Ordinals of employees with the Select box ticked
+    private boolean preview;                      // Rows of a file still loading, not in the repository
+    private int[] rowByOrdinal = new int[0];      // Row of each shown employee by ordinal; checked against rows
+
+    public EmployeeTableModel(EmployeeRepository repository) {
+        this.repository = repository;
+        repository.addChangeListener(this);
+    }
+
+    /**
+     * Show all employees
+     */
+    public void showAll() {
+        show(repository.snapshot(), null);
+    }
+
+    /**
+     * Show the result of a query; later changes keep it filtered by the same query
+     */
+    public void showRows(List<Employee> employees, EmployeeQuery query) {
+        show(employees, query == null ? null : query.compile());
+    }
+
+    /**
+     * Keep rows in this order from now on (null for repository order)
+     * Set before reordering the repository so the reorder is not undone.
+     */
+    public void setSortOrder(Comparator<Employee> sortOrder) {
+        this.sortOrder = sortOrder;
+        this.columnSort = null;
+    }
+    
+    /**
+     * Sort the shown rows by column headers and keep them in that order
+     * Pass null to go back to repository order.
+     */
+    public void setColumnSort(MultiColumnSort sort) {
+        columnSort = sort;
+        sortOrder = sort == null ? null : sort.comparator();
+        if (preview) return; // Loading rows stay in file order
+        if (sort == null) {
+            rebuild();
+        } else {
+            rows = sort.sort(rows, repository);
+            reindex(0);
+            fireTableDataChanged();
+        }
+    }
+    
+    public MultiColumnSort getColumnSort() { return columnSort; }
+    
+    /**
+     * Criteria a column sorts by, or null for S.N. and Select
+     */
+    public static SortingSearchingAlgorithms.SortCriteria criteriaOf(int column) {
+        switch (column) {
+            case COL_TYPE: return SortingSearchingAlgorithms.SortCriteria.EMPLOYEE_TYPE;
+            case COL_ID: return SortingSearchingAlgorithms.SortCriteria.ID;
+            case COL_NAME: return SortingSearchingAlgorithms.SortCriteria.NAME;
+            case COL_DEPARTMENT: return SortingSearchingAlgorithms.SortCriteria.DEPARTMENT;
+            case COL_BASE_SALARY: return SortingSearchingAlgorithms.SortCriteria.SALARY;
+            case COL_RATING: return SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING;
+            case COL_TOTAL_SALARY: return SortingSearchingAlgorithms.SortCriteria.TOTAL_SALARY;
+            default: return null;
+        }
+    }
+    
+    /**
+     * Header suffix for a sorted column, e.g. " ▲" or " ▼2" for a secondary key
+     */
+    public String getSortIndicator(int column) {
+        SortingSearchingAlgorithms.SortCriteria criteria = criteriaOf(column);
+        if (columnSort == null || criteria == null) return "";
+        int index = columnSort.indexOf(criteria);
+        if (index < 0) return "";
+        MultiColumnSort.Key key = columnSort.getKeys().get(index);
+        String arrow = key.getOrder() == SortingSearchingAlgorithms.SortOrder.ASCENDING ? " ▲" : " ▼";
+        return columnSort.getKeys().size() == 1 ? arrow : arrow + (index + 1);
+    }
+
+    /**
+     * Start showing the rows of a file that is still loading
+     * The rows are not in the repository yet, so they cannot be ticked and
+     * repository changes other than a reload are ignored until showAll().
+     */
+    public void beginPreview() {
+        checked.clear();
+        show(Collections.emptyList(), null);
+        preview = true;
+    }
+
+    /**
+     * Append a batch of loaded rows to the preview
+     */
+    public void appendPreview(List<Employee> batch) {
+        if (!preview || batch.isEmpty()) return;
+        int first = rows.size();
+        rows.addAll(batch);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    private void show(List<Employee> employees, Predicate<Employee> newFilter) {
+        preview = false;
+        rows = sortRows(new ArrayList<>(employees));
+        filter = newFilter;
+        reindex(0);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Employee shown in a row
+     */
+    public Employee getEmployeeAt(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Employees currently shown, in row order
+     */
+    public List<Employee> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    // ---------------- Selection ----------------
+
+    /**
+     * First ticked employee (lowest ordinal), or null if none is ticked
+     */
+    public Employee getFirstChecked() {
+        int ordinal = checked.nextSetBit(0);
+        return ordinal < 0 ? null : repository.employeeAt(ordinal);
+    }
+
+    /**
+     * All ticked employees, shown or not
+     */
+    public List<Employee> getCheckedEmployees() {
+        List<Employee> employees = new ArrayList<>(checked.cardinality());
+        for (int ordinal = checked.nextSetBit(0); ordinal >= 0; ordinal = checked.nextSetBit(ordinal + 1)) {
+            Employee emp = repository.employeeAt(ordinal);
+            if (emp != null) employees.add(emp);
+        }
+        return employees;
+    }
+
+    public int getCheckedCount() { return checked.cardinality(); }
+
+    /**
+     * Tick every employee in the repository, including those hidden by the filter
+     */
+    public void checkAll() {
+        repository.read(() -> {
+            for (int ordinal = 0; ordinal < repository.ordinalLimit(); ordinal++) {
+                if (repository.employeeAt(ordinal) != null) checked.set(ordinal);
+            }
+            return null;
+        });
+        fireSelectColumnChanged();
+    }
+
+    /**
+     * Tick every employee currently shown
+     */
+    public void checkShown() {
+        for (Employee emp : rows) {
+            int ordinal = repository.ordinalOf(emp);
+            if (ordinal >= 0) checked.set(ordinal);
+        }
+        fireSelectColumnChanged();
+    }
+
+    /**
+     * Untick everyone
+     */
+    public void clearChecked() {
+        checked.clear();
+        fireSelectColumnChanged();
+    }
+
+    private void fireSelectColumnChanged() {
+        if (!rows.isEmpty()) fireTableChanged(new TableModelEvent(this, 0, rows.size() - 1, COL_SELECT));
+    }
+
+    // ---------------- Repository changes ----------------
+
+    @Override
+    public void employeesChanged(EmployeeRepository.ChangeEvent event) {
+        // Removed employees give up their ordinals as soon as listeners return, so look them up now
+        int[] removedOrdinals = event.getType() == EmployeeRepository.ChangeType.REMOVED ? ordinalsOf(event) : null;
+        if (!SwingUtilities.isEventDispatchThread()) {
+            // Rows are only touched on the EDT; positions are looked up when the event is applied
+            SwingUtilities.invokeLater(() -> applyChange(event, removedOrdinals));
+            return;
+        }
+        applyChange(event, removedOrdinals);
+    }
+
+    private int[] ordinalsOf(EmployeeRepository.ChangeEvent event) {
+        int[] ordinals = new int[event.getEmployees().size()];
+        for (int i = 0; i < ordinals.length; i++) ordinals[i] = repository.ordinalOf(event.getEmployees().get(i));
+        return ordinals;
+    }
+
+    private void applyChange(EmployeeRepository.ChangeEvent event, int[] removedOrdinals) {
+        if (preview && event.getType() != EmployeeRepository.ChangeType.RELOADED) return;
+        switch (event.getType()) {
+            case ADDED:
+                if (event.getEmployees().size() > PATCH_LIMIT) {
+                    rebuild();
+                } else {
+                    for (Employee emp : event.getEmployees()) {
+                        int ordinal = repository.ordinalOf(emp);
+                        // A negative ordinal means the employee was removed before this event was applied
+                        if (ordinal >= 0 && matches(emp) && rowOf(emp, ordinal) < 0) insertRow(emp);
+                    }
+                }
+                break;
+            case REMOVED:
+                for (int ordinal : removedOrdinals) {
+                    if (ordinal >= 0) checked.clear(ordinal);
+                }
+                if (event.getEmployees().size() > 1) {
+                    // One pass and one event for a bulk delete
+                    Set<Employee> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+                    removed.addAll(event.getEmployees());
+                    if (rows.removeIf(removed::contains)) {
+                        reindex(0);
+                        fireTableDataChanged();
+                    }
+                } else {
+                    int row = rowOf(event.getEmployees().get(0), removedOrdinals[0]);
+                    if (row >= 0) deleteRow(row);
+                }
+                break;
+            case UPDATED:
+                if (event.getEmployees().size() > PATCH_LIMIT) {
+                    rebuild();
+                } else {
+                    for (Employee emp : event.getEmployees()) updateRow(emp);
+                }
+                break;
+            case REORDERED:
+            case REPRICED:
+                // Same employees and ordinals, so checked rows stay; the filter
+                // or sort may depend on total salary
+                rebuild();
+                break;
+            case RELOADED:
+                checked.clear(); // Ordinals are reassigned
+                rebuild();
+                break;
+        }
+    }
+
+    private void updateRow(Employee emp) {
+        int ordinal = repository.ordinalOf(emp);
+        if (ordinal < 0) return; // Removed since; its REMOVED event follows
+        int row = rowOf(emp, ordinal);
+        if (!matches(emp)) {
+            if (row >= 0) deleteRow(row);
+        } else if (row < 0) {
+            insertRow(emp);
+        } else if (!inOrder(row)) {
+            deleteRow(row);
+            insertRow(emp);
+        } else {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    private void insertRow(Employee emp) {
+        int row = rows.size();
+        if (sortOrder != null) {
+            // After the last equal row, like a stable sort would place it
+            int low = 0, high = rows.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortOrder.compare(rows.get(mid), emp) <= 0) low = mid + 1;
+                else high = mid;
+            }
+            row = low;
+        }
+        rows.add(row, emp);
+        reindex(row);
+        fireTableRowsInserted(row, row);
+    }
+
+    private void deleteRow(int row) {
+        rows.remove(row);
+        reindex(row);
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Re-read the shown employees from the repository, keeping filter and order
+     */
+    private void rebuild() {
+        preview = false;
+        List<Employee> employees = repository.snapshot();
+        ArrayList<Employee> rebuilt = new ArrayList<>(filter == null ? employees.size() : rows.size());
+        for (Employee emp : employees) {
+            if (matches(emp)) rebuilt.add(emp);
+        }
+        rows = sortRows(rebuilt);
+        reindex(0);
+        fireTableDataChanged();
+    }
+
+    private ArrayList<Employee> sortRows(ArrayList<Employee> employees) {
+        if (columnSort != null) return columnSort.sort(employees, repository);
+        if (sortOrder != null) employees.sort(sortOrder); // Nearly linear when already sorted
+        return employees;
+    }
+    
+    private boolean matches(Employee emp) {
+        return filter == null || filter.test(emp);
+    }
+
+    private boolean inOrder(int row) {
+        if (sortOrder == null) return true;
+        Employee emp = rows.get(row);
+        return (row == 0 || sortOrder.compare(rows.get(row - 1), emp) <= 0)
+            && (row == rows.size() - 1 || sortOrder.compare(emp, rows.get(row + 1)) <= 0);
+    }
+
+    /**
+     * Row of an employee, or -1 if it is not shown
+     * Entries left behind by deleted rows are caught by checking the row's employee.
+     */
+    private int rowOf(Employee emp, int ordinal) {
+        if (ordinal < 0 || ordinal >= rowByOrdinal.length) return -1;
+        int row = rowByOrdinal[ordinal];
+        return row >= 0 && row < rows.size() && rows.get(row) == emp ? row : -1;
+    }
+
+    /**
+     * Record the rows from a position on, after rows there were inserted, deleted or replaced
+     */
+    private void reindex(int from) {
+        repository.read(() -> {
+            int limit = repository.ordinalLimit();
+            if (rowByOrdinal.length < limit) {
+                int oldLength = rowByOrdinal.length;
+                rowByOrdinal = Arrays.copyOf(rowByOrdinal, Math.max(limit, oldLength * 2));
+                Arrays.fill(rowByOrdinal, oldLength, rowByOrdinal.length, -1);
+            }
+            for (int row = from; row < rows.size(); row++) {
+                int ordinal = repository.ordinalOf(rows.get(row));
+                if (ordinal >= 0) rowByOrdinal[ordinal] = row;
+            }
+            return null;
+        });
+    }
+
+    // ---------------- Table model ----------------
+
+    @Override
+    public int getRowCount() { return rows.size(); }
+
+    @Override
+    public int getColumnCount() { return COLUMN_NAMES.length; }
+
+    @Override
+    public String getColumnName(int column) { return COLUMN_NAMES[column]; }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case COL_SERIAL:
+            case COL_RATING:
+                return Integer.class;
+            case COL_SELECT:
+                return Boolean.class;
+            case COL_BASE_SALARY:
+            case COL_TOTAL_SALARY:
+                return Double.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_SELECT && !preview; // Only checkbox column is editable
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Employee emp = rows.get(row);
+        switch (column) {
+            case COL_SERIAL: return row + 1;
+            case COL_SELECT: return isChecked(emp);
+            case COL_TYPE: return emp.getClass().getSimpleName();
+            case COL_ID: return emp.getId();
+            case COL_NAME: return emp.getName();
+            case COL_DEPARTMENT: return emp.getDepartment();
+            case COL_BASE_SALARY: return emp.getSalary();
+            case COL_RATING: return emp.getPerformanceRating();
+            case COL_TOTAL_SALARY: return emp.calculateSalary();
+            default: return null;
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != COL_SELECT) return;
+        int ordinal = repository.ordinalOf(rows.get(row));
+        if (ordinal < 0) return;
+        checked.set(ordinal, Boolean.TRUE.equals(value));
+        fireTableCellUpdated(row, column);
+    }
+
+    private boolean isChecked(Employee emp) {
+        int ordinal = repository.ordinalOf(emp);
+        return ordinal >= 0 && checked.get(ordinal);
+    }
+
+    /**
+     * Renders salary columns as "$1234.56", right-aligned
+     * Formatting happens only for painted cells.
+     */
+    public static class CurrencyRenderer extends DefaultTableCellRenderer {
+        public CurrencyRenderer() {
+            setHorizontalAlignment(JLabel.RIGHT);
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            setText(value instanceof Double ? String.format("$%.2f", (Double) value) : "");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package employee;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.Component;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Export Task
+ * Runs a {@link QueryExporter} export in the background with a progress
+ * monitor that can cancel it, then reports the outcome to the user.
+ */
+public class ExportTask extends SwingWorker<Long, Void> implements FileHandler.Progress {
+
+    /**
+     * The export to run; reports progress to the task
+     */
+    public interface Export {
+        long run(Path file, QueryExporter.Format format, FileHandler.Progress progress) throws IOException;
+    }
+
+    private final Component parent;
+    private final String filename;
+    private final Export export;
+    private final ProgressMonitor monitor;
+
+    private ExportTask(Component parent, String filename, Export export) {
+        this.parent = parent;
+        this.filename = filename;
+        this.export = export;
+        this.monitor = new ProgressMonitor(parent, "Exporting to " + filename, null, 0, 100);
+        addPropertyChangeListener(event -> {
+            if (!"progress".equals(event.getPropertyName())) return;
+            if (monitor.isCanceled()) {
+                cancel(false);
+            } else {
+                monitor.setProgress((Integer) event.getNewValue());
+            }
+        });
+    }
+
+    /**
+     * Ask for a file and export to it in the background
+     * The format follows the extension (.csv, .jsonl or .bin).
+     */
+    public static void start(Component parent, Export export) {
+        JFileChooser fileChooser = new JFileChooser();
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter("CSV Files", "csv", "txt");
+        fileChooser.addChoosableFileFilter(csvFilter);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON Lines Files", "jsonl"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Binary Employee Files", "bin"));
+        fileChooser.setFileFilter(csvFilter);
+
+        if (fileChooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
+            String filename = fileChooser.getSelectedFile().getAbsolutePath();
+            new ExportTask(parent, filename, export).execute();
+        }
+    }
+
+    @Override
+    protected Long doInBackground() throws IOException {
+        return export.run(Path.of(filename), QueryExporter.Format.forFile(filename), this);
+    }
+
+    @Override
+    public void update(long done, long total) {
+        setProgress(total == 0 ? 100 : (int) Math.min(100, done * 100 / total));
+    }
+
+    @Override
+    protected void done() {
+        monitor.close();
+        if (isCancelled()) {
+            // done() runs as soon as cancel is requested, possibly while the file is being moved into place
+            JOptionPane.showMessageDialog(parent, "Export cancelled. " + filename
+                                        + " was not changed unless the export had just finished.",
+                                        "Export Cancelled", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try {
+            long written = get();
+            JOptionPane.showMessageDialog(parent, "Exported " + written + " employees to " + filename,
+                                        "Save Success", JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException | ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            JOptionPane.showMessageDialog(parent, "Error exporting results: " + cause.getMessage(),
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
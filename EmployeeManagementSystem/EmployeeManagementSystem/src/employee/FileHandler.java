@@ -1,7 +1,14 @@
 package employee;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 /**
  * FileHandler class
@@ -9,10 +16,41 @@ import java.util.LinkedList;
  */
 public class FileHandler {
 
+    /** Rows per batch in background loads and saves */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Progress callback for background loads and saves
+     */
+    public interface Progress {
+        /** Called after every batch, e.g. bytes read of the file size or rows written of all rows */
+        void update(long done, long total);
+
+        /** Checked after every batch; returning true stops the load or save */
+        boolean isCancelled();
+
+        /** For callers that neither show progress nor cancel */
+        Progress NONE = new Progress() {
+            @Override
+            public void update(long done, long total) { }
+
+            @Override
+            public boolean isCancelled() { return false; }
+        };
+    }
+
     /**
      * Load employees from CSV file into a LinkedList
      */
     public static LinkedList<Employee> loadEmployeesLinked(String filename) {
+        return loadEmployeesLinked(filename, emp -> { });
+    }
+
+    /**
+     * Load employees from CSV file, passing each one to a consumer as it is read
+     * Lets statistics be collected in the same pass as parsing.
+     */
+    public static LinkedList<Employee> loadEmployeesLinked(String filename, Consumer<Employee> onLoaded) {
         LinkedList<Employee> employees = new LinkedList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             String line;
@@ -28,14 +66,12 @@ public class FileHandler {
                 int rating = Integer.parseInt(parts[5]);
 
                 // Create the correct Employee object based on type
-                Employee emp = switch (type) {
-                    case "Manager" -> new Manager(id, name, department, salary, rating);
-                    case "Intern" -> new Intern(id, name, department, salary, rating);
-                    case "Regular" -> new Regular(id, name, department, salary, rating);
-                    default -> null;
-                };
-
-                if (emp != null) employees.add(emp);
+                Employee emp = Employee.create(type, id, name, department, salary, rating);
+
+                if (emp != null) {
+                    employees.add(emp);
+                    onLoaded.accept(emp);
+                }
             }
         } catch (FileNotFoundException e) {
             System.out.println("⚠ File not found: " + filename);
@@ -47,10 +83,122 @@ public class FileHandler {
         return employees;
     }
 
+    /**
+     * Load employees from CSV file for a background task
+     * Each employee is passed to onLoaded as it is read, and every batch of rows
+     * to onBatch, so callers can collect statistics and show rows while the
+     * file is still loading. Progress is reported in bytes. Lines with missing
+     * fields or invalid numbers are skipped.
+     * Throws CancellationException if the progress reports cancellation.
+     */
+    public static List<Employee> loadEmployees(String filename, Consumer<Employee> onLoaded,
+                                               Consumer<List<Employee>> onBatch, Progress progress) throws IOException {
+        Path path = Path.of(filename);
+        long total = Files.size(path);
+        List<Employee> employees = new ArrayList<>();
+        List<Employee> batch = new ArrayList<>(BATCH_SIZE);
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(path));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Employee emp = parse(line);
+                if (emp == null) continue; // Skip invalid lines
+                employees.add(emp);
+                onLoaded.accept(emp);
+                batch.add(emp);
+                if (batch.size() == BATCH_SIZE) {
+                    onBatch.accept(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    if (progress.isCancelled()) throw new CancellationException("Load cancelled");
+                    progress.update(in.count, total);
+                }
+            }
+        }
+        if (!batch.isEmpty()) onBatch.accept(batch);
+        progress.update(total, total);
+        return employees;
+    }
+
+    /**
+     * Employee from one CSV line, or null if a field is missing or invalid
+     */
+    static Employee parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 6) return null;
+        try {
+            return Employee.create(parts[0], parts[1], parts[2], parts[3],
+                                   Double.parseDouble(parts[4]), Integer.parseInt(parts[5]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Save employees into CSV file for a background task
+     * Rows are written to a temporary file that replaces the target only when
+     * complete, so a cancelled or failed save leaves the old file intact.
+     * Progress is reported in rows. Pass a snapshot, not a list that may change.
+     * Throws CancellationException if the progress reports cancellation.
+     */
+    public static void saveEmployees(String filename, List<Employee> employees, Progress progress) throws IOException {
+        Path path = Path.of(filename).toAbsolutePath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temp)))) {
+                for (int i = 0; i < employees.size(); i++) {
+                    writer.write(employees.get(i).toCSV());
+                    writer.newLine();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        if (progress.isCancelled()) throw new CancellationException("Save cancelled");
+                        progress.update(i + 1, employees.size());
+                    }
+                }
+            }
+            // A cancel may have come after the last batch; the temporary file is dropped below
+            if (progress.isCancelled()) throw new CancellationException("Save cancelled");
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            progress.update(employees.size(), employees.size());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Input stream that counts the bytes read through it
+     */
+    static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
     /**
      * Save employees into CSV file
      */
-    public static void saveEmployeesLinked(String filename, LinkedList<Employee> employees) {
+    public static void saveEmployeesLinked(String filename, List<Employee> employees) {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
             for (Employee emp : employees) {
                 writer.write(emp.toCSV());
@@ -65,7 +213,7 @@ public class FileHandler {
     /**
      * Save query results into CSV file
      */
-    public static void saveQueryResults(LinkedList<Employee> results, String filename) {
+    public static void saveQueryResults(List<Employee> results, String filename) {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
             for (Employee emp : results) {
                 writer.write(emp.toCSV());
@@ -0,0 +1,443 @@
+package employee;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Import Pipeline
+ * Adds the employees of a CSV file to the ones already stored (loading a file
+ * replaces them instead). The work is split into stages connected by bounded
+ * queues, so a slow stage holds back the stages before it instead of letting
+ * rows pile up in memory:
+ *
+ *   read    - reads the file in chunks of lines
+ *   parse   - several workers parse and validate rows with the rules of
+ *             AddEmployeeDialog: known type, ID, name and department given,
+ *             salary not negative, rating 1-5
+ *   dedupe  - puts chunks back in file order and drops IDs that are already
+ *             stored or appeared earlier in the file
+ *   insert  - adds batches with EmployeeRepository.addAll, one event each
+ *
+ * Rejected rows go to "<file>.rejected.csv" as line number, reason and the
+ * original line. Batches are inserted as soon as they are ready, so employees
+ * inserted before a cancel or an error stay imported.
+ */
+public class ImportPipeline {
+
+    private static final int CHUNK_SIZE = 1024;          // Lines per chunk
+    private static final int INSERT_BATCH_SIZE = 16384;  // Employees per addAll
+    private static final int QUEUE_CAPACITY = 8;         // Chunks or batches per queue
+
+    /**
+     * Lines of the file on their way from the reader to the dedupe stage
+     */
+    private static final class Chunk {
+        final long sequence;
+        final int firstLine;
+        final List<String> lines;
+        final Employee[] parsed;   // null where the line was rejected
+
+        Chunk(long sequence, int firstLine, List<String> lines) {
+            this.sequence = sequence;
+            this.firstLine = firstLine;
+            this.lines = lines;
+            this.parsed = new Employee[lines.size()];
+        }
+    }
+
+    private static final Chunk END_OF_CHUNKS = new Chunk(-1, 0, List.of());
+    private static final List<Employee> END_OF_BATCHES = Collections.emptyList();
+
+    /**
+     * Rows handled and time spent by one stage
+     */
+    public static class StageStats {
+        private final String name;
+        private final int threads;
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+
+        StageStats(String name, int threads) {
+            this.name = name;
+            this.threads = threads;
+        }
+
+        public String getName() { return name; }
+        public int getThreads() { return threads; }
+        public long getRows() { return rows.get(); }
+        /** Working time summed over the stage's threads */
+        public long getBusyNanos() { return busyNanos.get(); }
+        /** Time spent waiting for room in the next stage's queue */
+        public long getBlockedNanos() { return blockedNanos.get(); }
+
+        /** Rows per second while working, with all of the stage's threads busy */
+        public double getRowsPerSecond() {
+            long busy = busyNanos.get();
+            return busy == 0 ? 0 : rows.get() * 1e9 / busy * threads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-7s %d thread(s): %,d rows, %,.0f rows/s, %.0f ms blocked",
+                                 name, threads, getRows(), getRowsPerSecond(), getBlockedNanos() / 1e6);
+        }
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static class Result {
+        private final long imported;
+        private final long rejected;
+        private final Path rejectedFile;
+        private final long durationNanos;
+        private final List<StageStats> stages;
+
+        Result(long imported, long rejected, Path rejectedFile, long durationNanos, List<StageStats> stages) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.rejectedFile = rejectedFile;
+            this.durationNanos = durationNanos;
+            this.stages = stages;
+        }
+
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        /** File listing the rejected rows, or null if none were rejected */
+        public Path getRejectedFile() { return rejectedFile; }
+        public long getDurationNanos() { return durationNanos; }
+        public List<StageStats> getStages() { return stages; }
+
+        /**
+         * Multi-line summary with one line per stage
+         */
+        public String describe() {
+            StringBuilder sb = new StringBuilder(String.format("Imported %,d employees in %.0f ms, rejected %,d",
+                                                               imported, durationNanos / 1e6, rejected));
+            if (rejectedFile != null) sb.append(" (see ").append(rejectedFile).append(')');
+            for (StageStats stage : stages) sb.append('\n').append(stage);
+            return sb.toString();
+        }
+    }
+
+    private final EmployeeRepository repository;
+    private final int parseWorkers;
+
+    // State of the current run
+    private final BlockingQueue<Chunk> readQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<Chunk> parsedQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<List<Employee>> insertQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Semaphore chunksInFlight;  // Bounds the chunks waiting to be put back in order
+    private final StageStats readStats = new StageStats("read", 1);
+    private final StageStats parseStats;
+    private final StageStats dedupeStats = new StageStats("dedupe", 1);
+    private final StageStats insertStats = new StageStats("insert", 1);
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private Path rejectedFile;
+    private BufferedWriter rejectedWriter;
+    private volatile boolean cancelled;
+    private volatile boolean aborted;
+    private boolean used;
+
+    public ImportPipeline(EmployeeRepository repository) {
+        this(repository, Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+    }
+
+    public ImportPipeline(EmployeeRepository repository, int parseWorkers) {
+        this.repository = repository;
+        this.parseWorkers = parseWorkers;
+        this.parseStats = new StageStats("parse", parseWorkers);
+        this.chunksInFlight = new Semaphore(2 * QUEUE_CAPACITY + parseWorkers);
+    }
+
+    /**
+     * Import a CSV file; a pipeline runs once
+     * Progress is reported in bytes read. Throws CancellationException if the
+     * progress reports cancellation; employees inserted until then stay.
+     */
+    public Result run(Path file, FileHandler.Progress progress) throws IOException {
+        if (used) throw new IllegalStateException("An import pipeline runs only once");
+        used = true;
+        long startTime = System.nanoTime();
+        rejectedFile = file.resolveSibling(file.getFileName() + ".rejected.csv");
+        Files.deleteIfExists(rejectedFile);
+        long total = Files.size(file);
+
+        start("import-read", () -> read(file, total, progress));
+        for (int i = 1; i <= parseWorkers; i++) start("import-parse-" + i, this::parse);
+        start("import-dedupe", this::dedupe);
+        start("import-insert", this::insert);
+
+        try {
+            for (Thread thread : threads) thread.join();
+        } catch (InterruptedException e) {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } finally {
+            if (rejectedWriter != null) rejectedWriter.close();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof IOException) throw (IOException) error;
+        if (error instanceof UncheckedIOException) throw ((UncheckedIOException) error).getCause();
+        if (error instanceof RuntimeException) throw (RuntimeException) error;
+        if (error != null) throw new IllegalStateException("Import failed", error);
+        if (cancelled) throw new CancellationException("Import cancelled");
+
+        progress.update(total, total);
+        long rejected = rejectedCount.get();
+        return new Result(insertStats.getRows(), rejected, rejected == 0 ? null : rejectedFile,
+                          System.nanoTime() - startTime,
+                          List.of(readStats, parseStats, dedupeStats, insertStats));
+    }
+
+    // ---------------- Stages ----------------
+
+    private void read(Path file, long total, FileHandler.Progress progress) throws Exception {
+        try (FileHandler.CountingInputStream in = new FileHandler.CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            long sequence = 0;
+            int lineNumber = 0;
+            long workStart = System.nanoTime();
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                lineNumber++;
+                if (lines.size() == CHUNK_SIZE) {
+                    readStats.rows.addAndGet(lines.size());
+                    readStats.busyNanos.addAndGet(System.nanoTime() - workStart);
+                    put(readQueue, new Chunk(sequence++, lineNumber - lines.size() + 1, lines), readStats);
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                    if (progress.isCancelled()) {
+                        cancelled = true;
+                        break;
+                    }
+                    progress.update(in.count, total);
+                    workStart = System.nanoTime();
+                }
+            }
+            if (!lines.isEmpty() && !cancelled) {
+                readStats.rows.addAndGet(lines.size());
+                readStats.busyNanos.addAndGet(System.nanoTime() - workStart);
+                put(readQueue, new Chunk(sequence, lineNumber - lines.size() + 1, lines), readStats);
+            }
+        } finally {
+            // Every parse worker stops at one end marker
+            for (int i = 0; i < parseWorkers; i++) end(readQueue, END_OF_CHUNKS);
+        }
+    }
+
+    private void parse() throws Exception {
+        while (true) {
+            Chunk chunk = readQueue.take();
+            if (chunk == END_OF_CHUNKS) {
+                end(parsedQueue, END_OF_CHUNKS);
+                return;
+            }
+            long workStart = System.nanoTime();
+            for (int i = 0; i < chunk.lines.size(); i++) {
+                String line = chunk.lines.get(i);
+                if (line.isBlank()) continue;
+                String[] fields = line.split(",", -1);
+                String reason = validate(fields);
+                Employee emp = reason == null ? FileHandler.parse(line) : null;
+                if (reason == null && emp == null) reason = "Unknown type " + fields[0];
+                if (emp == null) {
+                    reject(chunk.firstLine + i, reason, line);
+                } else {
+                    chunk.parsed[i] = emp;
+                }
+            }
+            parseStats.rows.addAndGet(chunk.lines.size());
+            parseStats.busyNanos.addAndGet(System.nanoTime() - workStart);
+            put(parsedQueue, chunk, parseStats);
+        }
+    }
+
+    /**
+     * Reason a row (type, ID, name, department, salary, rating) is invalid, or
+     * null if it can be imported
+     * Same rules as AddEmployeeDialog.validateInput; the type is checked when parsing.
+     */
+    static String validate(String[] fields) {
+        if (fields.length != 6) return "Expected 6 fields but found " + fields.length;
+        if (fields[1].trim().isEmpty()) return "Employee ID is required";
+        if (fields[2].trim().isEmpty()) return "Employee name is required";
+        if (fields[3].trim().isEmpty()) return "Department is required";
+        try {
+            double salary = Double.parseDouble(fields[4]);
+            if (!Double.isFinite(salary)) return "Invalid salary format";
+            if (salary < 0) return "Salary cannot be negative";
+        } catch (NumberFormatException e) {
+            return "Invalid salary format";
+        }
+        try {
+            int rating = Integer.parseInt(fields[5]);
+            if (rating < 1 || rating > 5) return "Rating must be between 1 and 5";
+        } catch (NumberFormatException e) {
+            return "Invalid rating format";
+        }
+        return null;
+    }
+
+    private void dedupe() throws Exception {
+        Map<Long, Chunk> waiting = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        List<Employee> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        long nextSequence = 0;
+        int ended = 0;
+        try {
+            while (ended < parseWorkers) {
+                Chunk received = parsedQueue.take();
+                if (received == END_OF_CHUNKS) {
+                    ended++;
+                    continue;
+                }
+                waiting.put(received.sequence, received);
+                Chunk chunk;
+                while ((chunk = waiting.remove(nextSequence)) != null) {
+                    nextSequence++;
+                    chunksInFlight.release();
+                    long workStart = System.nanoTime();
+                    Chunk ordered = chunk;
+                    List<Employee> accepted = batch;
+                    // The insert stage adds to the ID index meanwhile, so look IDs up under the read lock
+                    repository.read(() -> {
+                        for (int i = 0; i < ordered.parsed.length; i++) {
+                            Employee emp = ordered.parsed[i];
+                            if (emp == null) continue;
+                            if (!seen.add(emp.getId().toLowerCase())) {
+                                reject(ordered.firstLine + i, "Duplicate ID earlier in the file", ordered.lines.get(i));
+                            } else if (repository.findById(emp.getId()) != null) {
+                                reject(ordered.firstLine + i, "Employee ID already exists", ordered.lines.get(i));
+                            } else {
+                                accepted.add(emp);
+                            }
+                        }
+                        return null;
+                    });
+                    dedupeStats.rows.addAndGet(chunk.parsed.length);
+                    dedupeStats.busyNanos.addAndGet(System.nanoTime() - workStart);
+                    if (batch.size() >= INSERT_BATCH_SIZE) {
+                        put(insertQueue, batch, dedupeStats);
+                        batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) put(insertQueue, batch, dedupeStats);
+        } finally {
+            end(insertQueue, END_OF_BATCHES);
+        }
+    }
+
+    private void insert() throws Exception {
+        while (true) {
+            List<Employee> batch = insertQueue.take();
+            if (batch == END_OF_BATCHES) return;
+            long workStart = System.nanoTime();
+            int added = repository.addAll(batch);
+            if (added < batch.size()) {
+                // Someone else added one of these IDs since the dedupe stage checked
+                List<Employee> skipped = repository.read(() -> {
+                    List<Employee> notStored = new ArrayList<>();
+                    for (Employee emp : batch) {
+                        if (repository.ordinalOf(emp) < 0) notStored.add(emp);
+                    }
+                    return notStored;
+                });
+                for (Employee emp : skipped) reject(0, "Employee ID already exists", emp.toCSV());
+            }
+            insertStats.rows.addAndGet(added);
+            insertStats.busyNanos.addAndGet(System.nanoTime() - workStart);
+        }
+    }
+
+    // ---------------- Plumbing ----------------
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private void start(String name, Stage stage) {
+        Thread thread = new Thread(() -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                // Aborted because another stage failed
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t)) abort();
+            }
+        }, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * Stop every stage, e.g. after one failed
+     */
+    private void abort() {
+        aborted = true;
+        for (Thread thread : threads) thread.interrupt();
+    }
+
+    /**
+     * Pass an end marker to the next stage
+     * Also runs in finally blocks after an abort, when the interrupt has
+     * already been consumed and the next stage may be gone with its queue
+     * full, so it gives up instead of waiting forever.
+     */
+    private <T> void end(BlockingQueue<T> queue, T marker) throws InterruptedException {
+        while (!queue.offer(marker, 100, TimeUnit.MILLISECONDS)) {
+            if (aborted) return;
+        }
+    }
+
+    /**
+     * Hand an item to the next stage, waiting while its queue is full
+     * Chunks also wait for a permit so that no more than a fixed number are
+     * between the reader and the dedupe stage, even when out of order.
+     */
+    private <T> void put(BlockingQueue<T> queue, T item, StageStats stats) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        if (queue == readQueue) chunksInFlight.acquire();
+        queue.put(item);
+        stats.blockedNanos.addAndGet(System.nanoTime() - waitStart);
+    }
+
+    private synchronized void reject(int lineNumber, String reason, String line) {
+        rejectedCount.incrementAndGet();
+        try {
+            if (rejectedWriter == null) rejectedWriter = Files.newBufferedWriter(rejectedFile);
+            rejectedWriter.write(lineNumber + "," + reason + "," + line);
+            rejectedWriter.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package employee;
+
+/**
+ * Money helper
+ * Amounts that are summed or stored are kept as long cents, which adds up
+ * exactly where repeated double additions would drift.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Convert an amount in dollars to whole cents (half-up)
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    /**
+     * Convert cents back to dollars for display
+     */
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Plain decimal text for cents, e.g. 123456 -> "1234.56", -5 -> "-0.05"
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        long abs = Math.abs(cents);
+        sb.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction).toString();
+    }
+}
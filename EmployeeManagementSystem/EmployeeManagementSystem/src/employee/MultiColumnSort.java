@@ -0,0 +1,169 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Multi Column Sort
+ * Stable sort by several criteria, e.g. department ascending, then total
+ * salary descending. Rows with equal keys keep their current order.
+ *
+ * Sorting does not compare employees. Each key is a counting-sort pass over
+ * the cached ranks from {@link SortedEmployeeViews}, least significant key
+ * first, so a sort costs one linear pass per key once the views are built.
+ *
+ * Instances are immutable; clicked() gives the sort after a header click.
+ */
+public final class MultiColumnSort {
+
+    /**
+     * One sort key
+     */
+    public static final class Key {
+        private final SortingSearchingAlgorithms.SortCriteria criteria;
+        private final SortingSearchingAlgorithms.SortOrder order;
+
+        public Key(SortingSearchingAlgorithms.SortCriteria criteria, SortingSearchingAlgorithms.SortOrder order) {
+            this.criteria = criteria;
+            this.order = order;
+        }
+
+        public SortingSearchingAlgorithms.SortCriteria getCriteria() { return criteria; }
+        public SortingSearchingAlgorithms.SortOrder getOrder() { return order; }
+
+        private boolean isDescending() {
+            return order == SortingSearchingAlgorithms.SortOrder.DESCENDING;
+        }
+
+        private Key reversed() {
+            return new Key(criteria, isDescending()
+                ? SortingSearchingAlgorithms.SortOrder.ASCENDING
+                : SortingSearchingAlgorithms.SortOrder.DESCENDING);
+        }
+    }
+
+    private final List<Key> keys;
+
+    public MultiColumnSort(List<Key> keys) {
+        if (keys.isEmpty()) throw new IllegalArgumentException("At least one sort key is required");
+        this.keys = List.copyOf(keys);
+    }
+
+    /**
+     * Sort by a single criteria
+     */
+    public static MultiColumnSort by(SortingSearchingAlgorithms.SortCriteria criteria,
+                                     SortingSearchingAlgorithms.SortOrder order) {
+        return new MultiColumnSort(List.of(new Key(criteria, order)));
+    }
+
+    public List<Key> getKeys() { return keys; }
+
+    /**
+     * Position of a criteria among the keys (0 = primary), or -1 if it is not a key
+     */
+    public int indexOf(SortingSearchingAlgorithms.SortCriteria criteria) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).criteria == criteria) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Sort after a header click
+     * A plain click sorts by that column alone, flipping the order if it already
+     * was the only key. A shift-click adds the column as the next key, or flips
+     * its order if it is already a key.
+     */
+    public MultiColumnSort clicked(SortingSearchingAlgorithms.SortCriteria criteria, boolean extend) {
+        int index = indexOf(criteria);
+        if (!extend) {
+            return keys.size() == 1 && index == 0
+                ? new MultiColumnSort(List.of(keys.get(0).reversed()))
+                : by(criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING);
+        }
+        List<Key> next = new ArrayList<>(keys);
+        if (index >= 0) {
+            next.set(index, keys.get(index).reversed());
+        } else {
+            next.add(new Key(criteria, SortingSearchingAlgorithms.SortOrder.ASCENDING));
+        }
+        return new MultiColumnSort(next);
+    }
+
+    /**
+     * Comparator giving the same order, for placing single rows
+     */
+    public Comparator<Employee> comparator() {
+        Comparator<Employee> comparator = null;
+        for (Key key : keys) {
+            Comparator<Employee> next = SortingSearchingAlgorithms.keyComparator(key.criteria);
+            if (key.isDescending()) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    /**
+     * Sorted copy of rows, which must be stored in the repository
+     * Rows that are not (e.g. a file still loading) are sorted with comparator().
+     */
+    public ArrayList<Employee> sort(List<Employee> rows, EmployeeRepository repository) {
+        return repository.read(() -> {
+            int n = rows.size();
+            Employee[] current = rows.toArray(new Employee[0]);
+            int[] ordinals = new int[n];
+            for (int i = 0; i < n; i++) {
+                ordinals[i] = repository.ordinalOf(current[i]);
+                if (ordinals[i] < 0) {
+                    ArrayList<Employee> sorted = new ArrayList<>(rows);
+                    sorted.sort(comparator());
+                    return sorted;
+                }
+            }
+
+            Employee[] next = new Employee[n];
+            int[] nextOrdinals = new int[n];
+            for (int k = keys.size() - 1; k >= 0; k--) {
+                Key key = keys.get(k);
+                int[] rank = repository.getSortedViews().ranks(key.criteria);
+                int buckets = 0;
+                for (int i = 0; i < n; i++) buckets = Math.max(buckets, rank[ordinals[i]] + 1);
+
+                // Stable counting sort on the rank (mirrored for descending)
+                int[] starts = new int[buckets + 1];
+                for (int i = 0; i < n; i++) starts[bucket(rank[ordinals[i]], buckets, key) + 1]++;
+                for (int b = 0; b < buckets; b++) starts[b + 1] += starts[b];
+                for (int i = 0; i < n; i++) {
+                    int position = starts[bucket(rank[ordinals[i]], buckets, key)]++;
+                    next[position] = current[i];
+                    nextOrdinals[position] = ordinals[i];
+                }
+
+                Employee[] swapRows = current;
+                current = next;
+                next = swapRows;
+                int[] swapOrdinals = ordinals;
+                ordinals = nextOrdinals;
+                nextOrdinals = swapOrdinals;
+            }
+            return new ArrayList<>(Arrays.asList(current));
+        });
+    }
+
+    private static int bucket(int rank, int buckets, Key key) {
+        return key.isDescending() ? buckets - 1 - rank : rank;
+    }
+
+    /**
+     * e.g. "DEPARTMENT ascending, TOTAL_SALARY descending"
+     */
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>(keys.size());
+        for (Key key : keys) parts.add(key.criteria + " " + key.order.name().toLowerCase());
+        return String.join(", ", parts);
+    }
+}
@@ -0,0 +1,337 @@
+package employee;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Payroll Ledger
+ * Append-only record of bonuses and fines per employee ID, stored in a compact
+ * binary log. Running totals per employee and per department are kept in
+ * memory, so net-pay lookups are O(1). A checkpoint rewrites the log with one
+ * record per employee, department, pay period (month) and entry kind, so
+ * amounts stay with the department and period they were recorded in.
+ *
+ * Record layout: kind (byte), time millis (long), amount cents (long),
+ * ID and department as length-prefixed UTF-8.
+ */
+public class PayrollLedger implements AutoCloseable {
+
+    /**
+     * Kind of ledger entry
+     */
+    public enum EntryType {
+        BONUS, FINE
+    }
+
+    /**
+     * Bonus and fine totals
+     * Lookups hand out copies, so a caller's totals do not change under it.
+     */
+    public static class Totals {
+        private long bonusCents;
+        private long fineCents;
+        private int entries;
+        private long lastBonusMillis;
+        private long lastFineMillis;
+
+        public long getBonusCents() { return bonusCents; }
+        public long getFineCents() { return fineCents; }
+        public long getNetAdjustmentCents() { return bonusCents - fineCents; }
+        public int getEntries() { return entries; }
+        /** Time of the latest bonus, or 0 if none was recorded */
+        public long getLastBonusMillis() { return lastBonusMillis; }
+
+        private Totals copy() {
+            Totals copy = new Totals();
+            copy.bonusCents = bonusCents;
+            copy.fineCents = fineCents;
+            copy.entries = entries;
+            copy.lastBonusMillis = lastBonusMillis;
+            copy.lastFineMillis = lastFineMillis;
+            return copy;
+        }
+
+        private void apply(EntryType type, long time, long cents) {
+            if (type == EntryType.BONUS) {
+                bonusCents += cents;
+                lastBonusMillis = Math.max(lastBonusMillis, time);
+            } else {
+                fineCents += cents;
+                lastFineMillis = Math.max(lastFineMillis, time);
+            }
+            entries++;
+        }
+    }
+
+    /**
+     * Department and pay period an entry was recorded in
+     */
+    private static final class Slot {
+        final String department;
+        final YearMonth period;
+
+        Slot(String department, YearMonth period) {
+            this.department = department;
+            this.period = period;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Slot && ((Slot) other).department.equals(department)
+                && ((Slot) other).period.equals(period);
+        }
+
+        @Override
+        public int hashCode() {
+            return department.hashCode() * 31 + period.hashCode();
+        }
+    }
+
+    /** Ledger file used by the GUI and CUI */
+    public static final String DEFAULT_FILE = "payroll_ledger.bin";
+
+    private static final Totals NONE = new Totals();
+
+    private final Path file;
+    private DataOutputStream out;
+    private final Map<String, Totals> byEmployee = new HashMap<>();
+    private final Map<String, Map<Slot, Totals>> byEmployeeSlot = new HashMap<>();
+    private final Map<String, Totals> byDepartment = new HashMap<>();
+    private long recordCount;
+
+    /**
+     * Open a ledger file, replaying existing entries
+     * A record cut short by a crash is dropped from the end of the file.
+     */
+    public PayrollLedger(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            long valid = replay();
+            if (valid < Files.size(file)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+        }
+    }
+
+    private PayrollLedger() {
+        this.file = null;
+    }
+
+    /**
+     * Ledger that is not persisted, e.g. when the ledger file cannot be opened
+     */
+    public static PayrollLedger inMemory() {
+        return new PayrollLedger();
+    }
+
+    // ---------------- Recording ----------------
+
+    /**
+     * Record a bonus paid to an employee
+     */
+    public synchronized void recordBonus(Employee emp, long cents) throws IOException {
+        record(EntryType.BONUS, emp.getId(), emp.getDepartment(), cents);
+    }
+
+    /**
+     * Record a fine charged to an employee
+     */
+    public synchronized void recordFine(Employee emp, long cents) throws IOException {
+        record(EntryType.FINE, emp.getId(), emp.getDepartment(), cents);
+    }
+
+    private void record(EntryType type, String id, String department, long cents) throws IOException {
+        if (cents < 0) throw new IllegalArgumentException("Amount cannot be negative");
+        long time = System.currentTimeMillis();
+        if (file != null) {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            }
+            write(out, type, time, cents, id, department);
+            out.flush();
+        }
+        apply(type, time, id, department, cents);
+    }
+
+    // ---------------- Lookups ----------------
+
+    /**
+     * Totals recorded for an employee ID (zero totals if none)
+     */
+    public synchronized Totals getTotals(String id) {
+        return totalsOf(id).copy();
+    }
+
+    /**
+     * Totals recorded for a department (zero totals if none)
+     */
+    public synchronized Totals getDepartmentTotals(String department) {
+        Totals totals = byDepartment.get(department.toLowerCase());
+        return totals == null ? new Totals() : totals.copy();
+    }
+
+    /**
+     * Net pay in cents: base salary plus recorded bonuses minus recorded fines
+     */
+    public synchronized long getNetPayCents(Employee emp) {
+        return Money.toCents(emp.getSalary()) + totalsOf(emp.getId()).getNetAdjustmentCents();
+    }
+
+    /**
+     * Whether a bonus was recorded for an employee ID in a pay period (month)
+     * Used to keep the automatic bonus from being recorded twice.
+     */
+    public synchronized boolean hasBonusIn(String id, YearMonth period) {
+        long last = totalsOf(id).lastBonusMillis;
+        return last != 0 && periodOf(last).equals(period);
+    }
+
+    /**
+     * Fines in cents recorded in a pay period, keyed by lowercase employee ID
+     * A payroll run for the period deducts these, not every fine ever recorded.
+     */
+    public synchronized Map<String, Long> getFinesIn(YearMonth period) {
+        Map<String, Long> fines = new HashMap<>();
+        for (Map.Entry<String, Map<Slot, Totals>> employee : byEmployeeSlot.entrySet()) {
+            long cents = 0;
+            for (Map.Entry<Slot, Totals> entry : employee.getValue().entrySet()) {
+                if (entry.getKey().period.equals(period)) cents += entry.getValue().fineCents;
+            }
+            if (cents != 0) fines.put(employee.getKey(), cents);
+        }
+        return fines;
+    }
+
+    /**
+     * Number of records in the log since the last checkpoint
+     */
+    public synchronized long getRecordCount() { return recordCount; }
+
+    // ---------------- Checkpoint ----------------
+
+    /**
+     * Compact the log to one bonus and one fine record per employee, department and period
+     * The compacted log is written to a temporary file and moved into place.
+     * Each record keeps the time of the latest entry it stands for.
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (file == null) return;
+        closeOutput();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long records = 0;
+        try (DataOutputStream compacted = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (Map.Entry<String, Map<Slot, Totals>> employee : byEmployeeSlot.entrySet()) {
+                String id = employee.getKey();
+                for (Map.Entry<Slot, Totals> entry : employee.getValue().entrySet()) {
+                    String department = entry.getKey().department;
+                    Totals totals = entry.getValue();
+                    if (totals.bonusCents != 0) {
+                        write(compacted, EntryType.BONUS, totals.lastBonusMillis, totals.bonusCents, id, department);
+                        records++;
+                    }
+                    if (totals.fineCents != 0) {
+                        write(compacted, EntryType.FINE, totals.lastFineMillis, totals.fineCents, id, department);
+                        records++;
+                    }
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeOutput();
+    }
+
+    // ---------------- Log format ----------------
+
+    private long replay() throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int kind = in.read();
+                if (kind < 0) break;
+                try {
+                    long time = in.readLong();
+                    long cents = in.readLong();
+                    byte[] id = readBytes(in);
+                    byte[] department = readBytes(in);
+                    if (kind >= EntryType.values().length) break;
+                    apply(EntryType.values()[kind], time,
+                          new String(id, StandardCharsets.UTF_8),
+                          new String(department, StandardCharsets.UTF_8), cents);
+                    valid += 1 + 8 + 8 + 2 + id.length + 2 + department.length;
+                } catch (EOFException e) {
+                    break; // Incomplete last record
+                }
+            }
+        }
+        return valid;
+    }
+
+    private static void write(DataOutputStream out, EntryType type, long time, long cents,
+                              String id, String department) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeLong(time);
+        out.writeLong(cents);
+        writeBytes(out, id.getBytes(StandardCharsets.UTF_8));
+        writeBytes(out, department.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private Totals totalsOf(String id) {
+        Totals totals = byEmployee.get(id.toLowerCase());
+        return totals == null ? NONE : totals;
+    }
+
+    private void apply(EntryType type, long time, String id, String department, long cents) {
+        String key = id.toLowerCase();
+        byEmployee.computeIfAbsent(key, k -> new Totals()).apply(type, time, cents);
+        byEmployeeSlot.computeIfAbsent(key, k -> new HashMap<>())
+                      .computeIfAbsent(new Slot(department, periodOf(time)), k -> new Totals()).apply(type, time, cents);
+        byDepartment.computeIfAbsent(department.toLowerCase(), k -> new Totals()).apply(type, time, cents);
+        recordCount++;
+    }
+
+    private static YearMonth periodOf(long millis) {
+        return YearMonth.from(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+    }
+
+    private void closeOutput() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package employee;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+/**
+ * Payroll Run
+ * Computes base, automatic bonus, fines and net pay for the whole roster.
+ * The roster is processed in fixed-size chunks in parallel; each chunk copies
+ * its employees into primitive columns of cents and computes pay with plain
+ * array loops, so there is no floating-point drift and the loops are simple
+ * enough for the JIT to vectorize. Chunks are written to the payroll register
+ * in roster order as soon as they are ready.
+ */
+public class PayrollRun {
+
+    /** Employees per chunk */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Payroll totals for one department
+     */
+    public static class DepartmentTotals {
+        private final String department;
+        private int headcount;
+        private long baseCents;
+        private long bonusCents;
+        private long fineCents;
+        private long netCents;
+
+        DepartmentTotals(String department) {
+            this.department = department;
+        }
+
+        public String getDepartment() { return department; }
+        public int getHeadcount() { return headcount; }
+        public long getBaseCents() { return baseCents; }
+        public long getBonusCents() { return bonusCents; }
+        public long getFineCents() { return fineCents; }
+        public long getNetCents() { return netCents; }
+
+        private void add(DepartmentTotals other) {
+            headcount += other.headcount;
+            baseCents += other.baseCents;
+            bonusCents += other.bonusCents;
+            fineCents += other.fineCents;
+            netCents += other.netCents;
+        }
+    }
+
+    /**
+     * Outcome of a payroll run
+     */
+    public static class Result {
+        private final DepartmentTotals total = new DepartmentTotals("All");
+        private final Map<String, DepartmentTotals> departments = new HashMap<>();
+        private long durationNanos;
+
+        public int getEmployeeCount() { return total.headcount; }
+        public DepartmentTotals getTotals() { return total; }
+        /** Run duration in nanoseconds, including writing the register */
+        public long getDurationNanos() { return durationNanos; }
+
+        /**
+         * Employees processed per second
+         */
+        public double getThroughput() {
+            return durationNanos == 0 ? 0.0 : total.headcount * 1_000_000_000.0 / durationNanos;
+        }
+
+        /**
+         * Per-department totals sorted by department name
+         */
+        public List<DepartmentTotals> getDepartments() {
+            List<DepartmentTotals> list = new ArrayList<>(departments.values());
+            list.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.department, b.department));
+            return Collections.unmodifiableList(list);
+        }
+
+        /**
+         * Human-readable summary of the run
+         */
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-15s %8s %14s %12s %10s %14s%n",
+                "Department", "Staff", "Base", "Bonus", "Fines", "Net"));
+            for (DepartmentTotals dept : getDepartments()) {
+                appendRow(sb, dept.department, dept);
+            }
+            appendRow(sb, "TOTAL", total);
+            sb.append(String.format("%nProcessed %d employees in %.2f ms (%.0f employees/s)%n",
+                total.headcount, durationNanos / 1_000_000.0, getThroughput()));
+            return sb.toString();
+        }
+
+        private static void appendRow(StringBuilder sb, String label, DepartmentTotals t) {
+            sb.append(String.format("%-15s %8d %14s %12s %10s %14s%n", label, t.headcount,
+                Money.format(t.baseCents), Money.format(t.bonusCents),
+                Money.format(t.fineCents), Money.format(t.netCents)));
+        }
+    }
+
+    /**
+     * Pay of one chunk, stored column by column
+     */
+    private static final class Chunk {
+        final Employee[] employees;
+        final long[] base;
+        final int[] bonusRate;   // Basis points
+        final long[] bonus;
+        final long[] fine;
+        final long[] net;
+        final Map<String, DepartmentTotals> departments = new HashMap<>();
+
+        Chunk(int size) {
+            employees = new Employee[size];
+            base = new long[size];
+            bonusRate = new int[size];
+            bonus = new long[size];
+            fine = new long[size];
+            net = new long[size];
+        }
+    }
+
+    private final EmployeeRepository repository;
+    private final Map<String, Long> finesById;
+    private final BonusPolicy policy = BonusPolicy.current();
+
+    public PayrollRun(EmployeeRepository repository) {
+        this(repository, Collections.emptyMap());
+    }
+
+    /**
+     * @param finesById fines in cents for the pay period, keyed by lowercase employee ID
+     */
+    public PayrollRun(EmployeeRepository repository, Map<String, Long> finesById) {
+        this.repository = repository;
+        this.finesById = finesById;
+    }
+
+    /**
+     * Run payroll for every employee and write the register as CSV
+     */
+    public Result run(String registerFile) throws IOException {
+        return run(registerFile, FileHandler.Progress.NONE);
+    }
+
+    /**
+     * Run payroll for a background task, reporting progress in employees
+     * The register is written to a temporary file that replaces the target only
+     * when complete. Throws CancellationException if the progress reports cancellation.
+     */
+    public Result run(String registerFile, FileHandler.Progress progress) throws IOException {
+        long startTime = System.nanoTime();
+        Employee[] roster = repository.read(() -> repository.getEmployees().toArray(new Employee[0]));
+        int chunks = (roster.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        Result result = new Result();
+        Path path = Path.of(registerFile).toAbsolutePath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] done = {0};
+
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp.toFile()))) {
+                writer.write("ID,Name,Department,Type,Base,Bonus,Fine,Net");
+                writer.newLine();
+                // Chunks are computed in parallel but handed over in roster order
+                IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> compute(roster, c * CHUNK_SIZE, Math.min(roster.length, (c + 1) * CHUNK_SIZE)))
+                    .forEachOrdered(chunk -> {
+                        write(writer, chunk);
+                        for (DepartmentTotals dept : chunk.departments.values()) {
+                            result.departments.computeIfAbsent(dept.department.toLowerCase(),
+                                key -> new DepartmentTotals(dept.department)).add(dept);
+                            result.total.add(dept);
+                        }
+                        done[0] += chunk.employees.length;
+                        if (progress.isCancelled()) throw new CancellationException("Payroll run cancelled");
+                        progress.update(done[0], roster.length);
+                    });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            // A cancel may have come after the last chunk; the temporary file is dropped below
+            if (progress.isCancelled()) throw new CancellationException("Payroll run cancelled");
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        result.durationNanos = System.nanoTime() - startTime;
+        return result;
+    }
+
+    private Chunk compute(Employee[] roster, int from, int to) {
+        int size = to - from;
+        Chunk chunk = new Chunk(size);
+
+        // Gather: one pass over the objects into primitive columns
+        for (int i = 0; i < size; i++) {
+            Employee emp = roster[from + i];
+            chunk.employees[i] = emp;
+            chunk.base[i] = Money.toCents(emp.getSalary());
+            chunk.bonusRate[i] = policy.rateOf(emp);
+            Long fine = finesById.get(emp.getId().toLowerCase());
+            chunk.fine[i] = fine == null ? 0L : fine;
+        }
+
+        // Compute: straight loops over arrays
+        long[] base = chunk.base, bonus = chunk.bonus, fine = chunk.fine, net = chunk.net;
+        int[] rate = chunk.bonusRate;
+        for (int i = 0; i < size; i++) {
+            bonus[i] = (base[i] * rate[i] + 5_000) / 10_000;
+        }
+        for (int i = 0; i < size; i++) {
+            net[i] = base[i] + bonus[i] - fine[i];
+        }
+
+        // Department totals for this chunk
+        for (int i = 0; i < size; i++) {
+            String department = chunk.employees[i].getDepartment();
+            DepartmentTotals dept = chunk.departments.computeIfAbsent(department.toLowerCase(),
+                key -> new DepartmentTotals(department));
+            dept.headcount++;
+            dept.baseCents += base[i];
+            dept.bonusCents += bonus[i];
+            dept.fineCents += fine[i];
+            dept.netCents += net[i];
+        }
+        return chunk;
+    }
+
+    private static void write(BufferedWriter writer, Chunk chunk) {
+        try {
+            StringBuilder line = new StringBuilder(96);
+            for (int i = 0; i < chunk.employees.length; i++) {
+                Employee emp = chunk.employees[i];
+                line.setLength(0);
+                line.append(emp.getId()).append(',')
+                    .append(emp.getName()).append(',')
+                    .append(emp.getDepartment()).append(',')
+                    .append(emp.getClass().getSimpleName()).append(',')
+                    .append(Money.format(chunk.base[i])).append(',')
+                    .append(Money.format(chunk.bonus[i])).append(',')
+                    .append(Money.format(chunk.fine[i])).append(',')
+                    .append(Money.format(chunk.net[i]));
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
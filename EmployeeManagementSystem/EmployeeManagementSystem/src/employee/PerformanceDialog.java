@@ -4,13 +4,18 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.time.YearMonth;
 
 /**
  * Performance Management Dialog
  * Dialog for managing employee performance and salary adjustments
+ * Built once and reused; open() shows it for another employee.
  */
 public class PerformanceDialog extends JDialog {
     
+    private final EmployeeRepository repository;
+    private final PayrollLedger ledger;
     private Employee employee;
     private boolean performanceUpdated = false;
     
@@ -18,19 +23,33 @@ public class PerformanceDialog extends JDialog {
     private JLabel currentSalaryLabel;
     private JLabel bonusLabel;
     private JLabel totalSalaryLabel;
+    private JLabel ledgerLabel;
     private JLabel performanceLetterLabel;
+    private JButton applyBonusButton;
     
-    public PerformanceDialog(JFrame parent, Employee employee) {
+    public PerformanceDialog(JFrame parent, EmployeeRepository repository, PayrollLedger ledger) {
         super(parent, "Performance Management", true);
-        this.employee = employee;
+        this.repository = repository;
+        this.ledger = ledger;
         initializeDialog();
     }
     
+    /**
+     * Show the dialog for an employee
+     */
+    public void open(Employee employee) {
+        this.employee = employee;
+        performanceUpdated = false;
+        updateDisplay();
+        setLocationRelativeTo(getParent());
+        setVisible(true);
+    }
+    
     /**
      * Initialize the dialog components
      */
     private void initializeDialog() {
-        setSize(500, 400);
+        setSize(500, 430);
         setLocationRelativeTo(getParent());
         setLayout(new BorderLayout());
         
@@ -64,19 +83,25 @@ public class PerformanceDialog extends JDialog {
         totalSalaryLabel.setForeground(Color.BLUE);
         mainPanel.add(totalSalaryLabel, gbc);
         
-        // Performance Letter
+        // Recorded bonuses and fines
         gbc.gridx = 0; gbc.gridy = 4;
+        ledgerLabel = new JLabel();
+        ledgerLabel.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        mainPanel.add(ledgerLabel, gbc);
+        
+        // Performance Letter
+        gbc.gridx = 0; gbc.gridy = 5;
         gbc.gridwidth = 2;
         performanceLetterLabel = new JLabel();
         performanceLetterLabel.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
         mainPanel.add(performanceLetterLabel, gbc);
         
         // Action Panel
-        gbc.gridx = 0; gbc.gridy = 5;
+        gbc.gridx = 0; gbc.gridy = 6;
         gbc.gridwidth = 2;
         JPanel actionPanel = new JPanel(new FlowLayout());
         
-        JButton applyBonusButton = new JButton("💰 Apply Automatic Bonus");
+        applyBonusButton = new JButton("💰 Apply Automatic Bonus");
         JButton applyFineButton = new JButton("⚠️ Apply Fine");
         JButton updateRatingButton = new JButton("📊 Update Rating");
         
@@ -96,13 +121,10 @@ public class PerformanceDialog extends JDialog {
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
         JButton closeButton = new JButton("Close");
-        closeButton.addActionListener(e -> dispose());
+        closeButton.addActionListener(e -> setVisible(false));
         buttonPanel.add(closeButton);
         
         add(buttonPanel, BorderLayout.SOUTH);
-        
-        // Initialize display
-        updateDisplay();
     }
     
     /**
@@ -123,9 +145,27 @@ public class PerformanceDialog extends JDialog {
         bonusLabel.setText("<html><b>Automatic Bonus:</b> $" + String.format("%.2f", automaticBonus) + "</html>");
         totalSalaryLabel.setText("<html><b>Total Salary:</b> $" + String.format("%.2f", totalSalary) + "</html>");
         
+        // Ledger totals (O(1) lookups)
+        PayrollLedger.Totals recorded = ledger.getTotals(employee.getId());
+        ledgerLabel.setText(String.format("<html><b>Recorded:</b> bonuses $%s, fines $%s &nbsp; <b>Net Pay:</b> $%s</html>",
+            Money.format(recorded.getBonusCents()), Money.format(recorded.getFineCents()),
+            Money.format(ledger.getNetPayCents(employee))));
+        
         // Performance letter
         String performanceLetter = getPerformanceLetter();
         performanceLetterLabel.setText(performanceLetter);
+        
+        // One automatic bonus per employee and pay period
+        applyBonusButton.setEnabled(!bonusRecordedThisPeriod());
+        applyBonusButton.setToolTipText(bonusRecordedThisPeriod()
+            ? "The automatic bonus was already recorded for " + YearMonth.now() : null);
+    }
+    
+    /**
+     * Whether a bonus was already recorded for the employee in the current month
+     */
+    private boolean bonusRecordedThisPeriod() {
+        return ledger.hasBonusIn(employee.getId(), YearMonth.now());
     }
     
     /**
@@ -159,6 +199,21 @@ public class PerformanceDialog extends JDialog {
         double totalSalary = employee.calculateSalary();
         double bonus = totalSalary - baseSalary;
         
+        if (bonusRecordedThisPeriod()) {
+            JOptionPane.showMessageDialog(this, "The automatic bonus for " + employee.getName()
+                                        + " was already recorded for " + YearMonth.now() + ".",
+                                        "Bonus Already Applied", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        try {
+            ledger.recordBonus(employee, Money.toCents(bonus));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not record bonus: " + e.getMessage(),
+                                        "Ledger Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        updateDisplay();
+        
         String message = String.format(
             "<html><h3>Automatic Bonus Applied</h3>" +
             "<p><b>Employee:</b> %s</p>" +
@@ -197,6 +252,15 @@ public class PerformanceDialog extends JDialog {
                 double totalSalary = employee.calculateSalary();
                 double salaryAfterFine = totalSalary - fine;
                 
+                try {
+                    ledger.recordFine(employee, Money.toCents(fine));
+                } catch (IOException e) {
+                    JOptionPane.showMessageDialog(this, "Could not record fine: " + e.getMessage(),
+                                                "Ledger Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                updateDisplay();
+                
                 String message = String.format(
                     "<html><h3>Fine Applied</h3>" +
                     "<p><b>Employee:</b> %s</p>" +
@@ -242,7 +306,7 @@ public class PerformanceDialog extends JDialog {
                 }
                 
                 int oldRating = employee.getPerformanceRating();
-                employee.setPerformanceRating(newRating);
+                repository.update(employee, emp -> emp.setPerformanceRating(newRating));
                 
                 String message = String.format(
                     "<html><h3>Performance Rating Updated</h3>" +
@@ -0,0 +1,126 @@
+package employee;
+
+import javax.swing.BorderFactory;
+import javax.swing.BoxLayout;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.Font;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance HUD
+ * Side panel showing how responsive the GUI is: EDT dispatch percentiles and
+ * stalls from the {@link EdtMonitor}, heap usage, garbage collections and the
+ * duration of the last load, import, save, search and sort. It refreshes twice a
+ * second while visible and does nothing while hidden. Durations are the
+ * latest of each kind; startup is the time to the first paint of the window.
+ */
+public class PerformanceHud extends JPanel {
+
+    private static final int REFRESH_MS = 500;
+    private static final String[] OPERATIONS = {"Startup", "Load", "Import", "Save", "Search", "Sort"};
+
+    private final EdtMonitor monitor;
+    private final Timer refreshTimer;
+    private final Map<String, String> lastOperations = new LinkedHashMap<>();
+
+    private final JLabel dispatchLabel = new JLabel();
+    private final JLabel stallLabel = new JLabel();
+    private final JLabel heapLabel = new JLabel();
+    private final JLabel gcLabel = new JLabel();
+    private final Map<String, JLabel> operationLabels = new LinkedHashMap<>();
+
+    // GC totals at the previous refresh, for the pause time since then
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    public PerformanceHud(EdtMonitor monitor) {
+        this.monitor = monitor;
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        setBorder(BorderFactory.createTitledBorder("Performance"));
+
+        addLine(dispatchLabel);
+        addLine(stallLabel);
+        addLine(heapLabel);
+        addLine(gcLabel);
+        for (String operation : OPERATIONS) {
+            lastOperations.put(operation, "-");
+            JLabel label = new JLabel();
+            operationLabels.put(operation, label);
+            addLine(label);
+        }
+
+        refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+        super.setVisible(false);
+    }
+
+    private void addLine(JLabel label) {
+        label.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(label);
+    }
+
+    /**
+     * Show or hide the HUD; it only samples while shown
+     */
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        if (visible) {
+            refresh();
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+    }
+
+    /**
+     * Remember how long an operation took, e.g. record("Load", nanos, "200000 rows")
+     * Call on the EDT.
+     */
+    public void record(String operation, long durationNanos, String detail) {
+        String text = String.format("%.1f ms", durationNanos / 1_000_000.0);
+        lastOperations.put(operation, detail == null ? text : text + " (" + detail + ")");
+        if (isVisible()) refresh();
+    }
+
+    private void refresh() {
+        long[] p = monitor.percentiles(0.5, 0.9, 0.99);
+        dispatchLabel.setText(String.format("EDT p50/p90/p99: %s / %s / %s",
+                                            millis(p[0]), millis(p[1]), millis(p[2])));
+        stallLabel.setText(String.format("EDT max %s, stalls >= %d ms: %d",
+                                         millis(monitor.getMaxNanos()),
+                                         EdtMonitor.STALL_THRESHOLD_NANOS / 1_000_000,
+                                         monitor.getStallCount()));
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        heapLabel.setText(String.format("Heap: %d / %d MB", heap.getUsed() >> 20,
+                                        (heap.getMax() > 0 ? heap.getMax() : heap.getCommitted()) >> 20));
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        gcLabel.setText(String.format("GC: %d runs, %d ms total, +%d ms / +%d runs",
+                                      gcCount, gcMillis, gcMillis - lastGcMillis, gcCount - lastGcCount));
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+
+        for (Map.Entry<String, JLabel> entry : operationLabels.entrySet()) {
+            entry.getValue().setText(String.format("%-8s %s", entry.getKey() + ":",
+                                                   lastOperations.get(entry.getKey())));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,113 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Query Cursor
+ * Reads the employees matching a query one page at a time instead of
+ * building the full result list. Matches are visited in ordinal order
+ * (load order for a loaded file). A fully indexed query walks the index
+ * bitmap; anything else scans ordinals. Each page stops as soon as it is
+ * full, so showing the first screen costs only as much as finding it.
+ *
+ * The resume token marks the position after the last returned employee.
+ * Employees keep their ordinal while stored, so resuming with the same query
+ * continues where the cursor stopped even after other employees changed.
+ * Employees added later may take a free ordinal before that position and are
+ * then not visited.
+ */
+public class QueryCursor {
+
+    private final EmployeeRepository repository;
+    private final EmployeeQuery query;         // null = all employees
+    private final Predicate<Employee> predicate;
+    private final EmployeeBitmap candidates;   // null = scan every ordinal
+    private int position;                      // Next ordinal to examine
+    private boolean exhausted;
+
+    private QueryCursor(EmployeeRepository repository, EmployeeQuery query, int position) {
+        this.repository = repository;
+        this.query = query;
+        this.predicate = query == null ? emp -> true : query.compile();
+        this.candidates = query == null ? null : repository.read(() -> repository.getIndexes().evaluate(query));
+        this.position = position;
+    }
+
+    /**
+     * Cursor over the employees matching a query (null for all employees)
+     */
+    public static QueryCursor open(EmployeeRepository repository, EmployeeQuery query) {
+        return new QueryCursor(repository, query, 0);
+    }
+
+    /**
+     * Continue a cursor from its resume token; the query must be the same
+     */
+    public static QueryCursor resume(EmployeeRepository repository, EmployeeQuery query, String token) {
+        int separator = token.indexOf(':');
+        if (separator < 0 || !token.substring(separator + 1).equals(fingerprint(query))) {
+            throw new IllegalArgumentException("Resume token does not belong to this query: " + token);
+        }
+        return new QueryCursor(repository, query, Integer.parseInt(token.substring(0, separator)));
+    }
+
+    /**
+     * Next page of at most pageSize matches; empty once the cursor is exhausted
+     */
+    public List<Employee> next(int pageSize) {
+        return repository.read(() -> {
+            List<Employee> page = new ArrayList<>(Math.min(pageSize, 1024));
+            int limit = repository.ordinalLimit();
+            while (page.size() < pageSize) {
+                int ordinal = candidates == null ? position : candidates.nextSetBit(position);
+                if (ordinal < 0 || ordinal >= limit) {
+                    position = limit;
+                    exhausted = true;
+                    break;
+                }
+                position = ordinal + 1;
+                Employee emp = repository.employeeAt(ordinal);
+                // Index bitmaps are taken when the cursor opens, so re-check the live values
+                if (emp != null && predicate.test(emp)) page.add(emp);
+            }
+            return page;
+        });
+    }
+
+    /**
+     * False once a page has reached the end of the employees
+     */
+    public boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * Token for resume(): the position after the last returned employee
+     */
+    public String getResumeToken() {
+        return position + ":" + fingerprint(query);
+    }
+
+    /**
+     * Estimated number of matches; cheap, for "about N results" labels
+     */
+    public int estimateCount() {
+        if (query == null) return repository.size();
+        if (candidates != null) return candidates.cardinality();
+        return repository.read(() -> new QueryPlanner(repository).estimateRows(query));
+    }
+
+    /**
+     * Exact number of matches; scans unless the query is fully indexed
+     */
+    public int count() {
+        if (query == null) return repository.size();
+        return repository.read(() -> repository.getIndexes().count(query));
+    }
+
+    private static String fingerprint(EmployeeQuery query) {
+        return Integer.toHexString(query == null ? 0 : query.toString().hashCode());
+    }
+}
@@ -0,0 +1,298 @@
+package employee;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Query Exporter
+ * Writes query results to a file as they are read from a {@link QueryCursor},
+ * so memory use does not grow with the number of matches. Records are encoded
+ * straight into a 1 MB buffer that is written through a FileChannel whenever
+ * it fills. Like FileHandler.saveEmployees, the output goes to a temporary
+ * file that replaces the target only when complete.
+ *
+ * Formats:
+ *   CSV         - the employee file format, loadable with FileHandler
+ *   JSON_LINES  - one JSON object per line
+ *   BINARY      - "EMPB" magic, version (short), then per employee: type, ID,
+ *                 name and department as length-prefixed UTF-8, base salary
+ *                 cents (long), rating (byte); read back with readBinary()
+ *
+ * Employees changed during an export are written as they are when their page
+ * is read.
+ */
+public final class QueryExporter {
+
+    /**
+     * Export file format
+     */
+    public enum Format {
+        CSV("csv"), JSON_LINES("jsonl"), BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+
+        /**
+         * Format for a file name by its extension; CSV for anything unknown
+         */
+        public static Format forFile(String filename) {
+            String lower = filename.toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (lower.endsWith("." + format.extension)) return format;
+            }
+            return CSV;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int PAGE_SIZE = 4096;
+    private static final int BINARY_MAGIC = 0x454D5042; // "EMPB"
+    private static final short BINARY_VERSION = 1;
+
+    private final FileChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(256);
+
+    private QueryExporter(FileChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    /**
+     * Export the employees matching a query (null for all employees)
+     * Progress is reported in employees against the estimated match count.
+     * Returns the number of employees written.
+     * Throws CancellationException if the progress reports cancellation.
+     */
+    public static long export(EmployeeRepository repository, EmployeeQuery query, Path file,
+                              Format format, FileHandler.Progress progress) throws IOException {
+        QueryCursor cursor = QueryCursor.open(repository, query);
+        int estimate = cursor.estimateCount();
+        return write(file, format, () -> cursor.next(PAGE_SIZE), estimate, progress);
+    }
+
+    /**
+     * Export employees already in a list, e.g. the result of a search algorithm
+     */
+    public static long export(List<Employee> employees, Path file, Format format,
+                              FileHandler.Progress progress) throws IOException {
+        int[] offset = {0};
+        Supplier<List<Employee>> pages = () -> {
+            int from = offset[0];
+            offset[0] = Math.min(employees.size(), from + PAGE_SIZE);
+            return employees.subList(from, offset[0]);
+        };
+        return write(file, format, pages, employees.size(), progress);
+    }
+
+    /**
+     * Write pages until an empty one comes back
+     */
+    private static long write(Path file, Format format, Supplier<List<Employee>> pages, long estimate,
+                              FileHandler.Progress progress) throws IOException {
+        Path path = file.toAbsolutePath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long written = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                QueryExporter exporter = new QueryExporter(channel, format);
+                exporter.writeHeader();
+                List<Employee> page;
+                while (!(page = pages.get()).isEmpty()) {
+                    for (Employee emp : page) exporter.writeRecord(emp);
+                    written += page.size();
+                    if (progress.isCancelled()) throw new CancellationException("Export cancelled");
+                    progress.update(written, Math.max(estimate, written));
+                }
+                exporter.flush();
+            }
+            // A cancel may have come after the last page; the temporary file is dropped below
+            if (progress.isCancelled()) throw new CancellationException("Export cancelled");
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            progress.update(written, written);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ---------------- Encoding ----------------
+
+    private void writeHeader() throws IOException {
+        if (format != Format.BINARY) return;
+        ensure(6);
+        buffer.putInt(BINARY_MAGIC);
+        buffer.putShort(BINARY_VERSION);
+    }
+
+    private void writeRecord(Employee emp) throws IOException {
+        switch (format) {
+            case CSV:
+                line.setLength(0);
+                line.append(emp.toCSV()).append('\n');
+                writeText(line);
+                break;
+            case JSON_LINES:
+                line.setLength(0);
+                appendJson(line, emp);
+                line.append('\n');
+                writeText(line);
+                break;
+            case BINARY:
+                byte[] type = utf8(emp.getClass().getSimpleName());
+                byte[] id = utf8(emp.getId());
+                byte[] name = utf8(emp.getName());
+                byte[] department = utf8(emp.getDepartment());
+                ensure(8 + type.length + id.length + name.length + department.length + 9);
+                putBytes(type);
+                putBytes(id);
+                putBytes(name);
+                putBytes(department);
+                buffer.putLong(Money.toCents(emp.getSalary()));
+                buffer.put((byte) emp.getPerformanceRating());
+                break;
+        }
+    }
+
+    /**
+     * Append an employee as a JSON object, including the total salary
+     */
+    static void appendJson(StringBuilder line, Employee emp) {
+        line.append("{\"type\":");
+        appendJson(line, emp.getClass().getSimpleName());
+        line.append(",\"id\":");
+        appendJson(line, emp.getId());
+        line.append(",\"name\":");
+        appendJson(line, emp.getName());
+        line.append(",\"department\":");
+        appendJson(line, emp.getDepartment());
+        line.append(",\"salary\":").append(emp.getSalary());
+        line.append(",\"rating\":").append(emp.getPerformanceRating());
+        line.append(",\"totalSalary\":").append(emp.calculateSalary());
+        line.append('}');
+    }
+
+    /**
+     * Append a string as a quoted JSON value
+     */
+    static void appendJson(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) line.append(String.format("\\u%04x", (int) c));
+                    else line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Encode text into the buffer, flushing whenever it fills
+     */
+    private void writeText(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static byte[] utf8(String value) throws CharacterCodingException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new CharacterCodingException();
+        return bytes;
+    }
+
+    private void putBytes(byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // ---------------- Reading the binary format ----------------
+
+    /**
+     * Read a binary export, passing each employee to the action
+     * Returns the number of employees read.
+     */
+    public static long readBinary(Path file, Consumer<Employee> action) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != BINARY_MAGIC) throw new IOException("Not an employee export: " + file);
+            short version = in.readShort();
+            if (version != BINARY_VERSION) throw new IOException("Unsupported export version " + version);
+            long count = 0;
+            while (true) {
+                String type;
+                try {
+                    type = readString(in);
+                } catch (EOFException e) {
+                    return count;
+                }
+                String id = readString(in);
+                String name = readString(in);
+                String department = readString(in);
+                double salary = Money.toDollars(in.readLong());
+                int rating = in.readByte();
+                Employee emp = Employee.create(type, id, name, department, salary, rating);
+                if (emp == null) throw new IOException("Unknown employee type '" + type + "' in " + file);
+                action.accept(emp);
+                count++;
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,282 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Query Planner
+ * Cost-based planning for multi-criteria advanced searches.
+ * Each criteria is a single-field {@link EmployeeQuery}; all of them must match.
+ * Estimates how many employees each criteria matches (exact counts from the
+ * value indexes, sampling otherwise), starts with the most selective index,
+ * intersects candidate bitmaps and only then verifies the remaining criteria
+ * row by row.
+ */
+public class QueryPlanner {
+
+    /** Number of employees sampled to estimate non-indexed criteria */
+    private static final int SAMPLE_SIZE = 64;
+
+    /**
+     * How a plan step produces its rows
+     */
+    public enum AccessPath {
+        INDEX_SCAN, INDEX_INTERSECT, FULL_SCAN, FILTER
+    }
+
+    /**
+     * One step of a query plan
+     */
+    public static class PlanStep {
+        private final AccessPath accessPath;
+        private final EmployeeQuery query;
+        private final int estimatedRows;
+        private int actualRows = -1;
+
+        public PlanStep(AccessPath accessPath, EmployeeQuery query, int estimatedRows) {
+            this.accessPath = accessPath;
+            this.query = query;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public AccessPath getAccessPath() { return accessPath; }
+        /** Query evaluated by this step, null for a full scan */
+        public EmployeeQuery getQuery() { return query; }
+        /** Rows expected to remain after this step */
+        public int getEstimatedRows() { return estimatedRows; }
+        /** Rows that actually remained after this step, -1 before execution */
+        public int getActualRows() { return actualRows; }
+    }
+
+    /**
+     * Ordered list of plan steps with estimated and (after execution) actual row counts
+     */
+    public static class QueryPlan {
+        private final List<PlanStep> steps;
+        private final int totalRows;
+        private long executionTime = -1;
+
+        public QueryPlan(List<PlanStep> steps, int totalRows) {
+            this.steps = steps;
+            this.totalRows = totalRows;
+        }
+
+        public List<PlanStep> getSteps() { return Collections.unmodifiableList(steps); }
+        public int getTotalRows() { return totalRows; }
+        /** Execution time in nanoseconds, -1 before execution */
+        public long getExecutionTime() { return executionTime; }
+
+        /**
+         * Human-readable description of the chosen plan
+         */
+        public String explain() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Query plan over %d employee(s)%n", totalRows));
+            int stepNumber = 1;
+            for (PlanStep step : steps) {
+                String predicate = step.query == null ? "all employees" : step.query.toString();
+                sb.append(String.format("  %d. %-15s %-40s est. %7d  actual %7s%n",
+                    stepNumber++, step.accessPath, predicate, step.estimatedRows,
+                    step.actualRows < 0 ? "-" : String.valueOf(step.actualRows)));
+            }
+            if (executionTime >= 0) {
+                sb.append(String.format("Executed in %.3f ms%n", executionTime / 1_000_000.0));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return explain();
+        }
+    }
+
+    /**
+     * Criteria with its estimated selectivity, used while planning
+     */
+    private static class Candidate {
+        final EmployeeQuery query;
+        final double selectivity;
+
+        Candidate(EmployeeQuery query, double selectivity) {
+            this.query = query;
+            this.selectivity = selectivity;
+        }
+    }
+
+    private final EmployeeRepository repository;
+
+    public QueryPlanner(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Plan and execute a multi-criteria search
+     */
+    public List<Employee> search(Map<SortingSearchingAlgorithms.SortCriteria, String> searchCriteria) {
+        return execute(plan(searchCriteria));
+    }
+
+    /**
+     * Choose an execution order for the given criteria
+     */
+    public QueryPlan plan(Map<SortingSearchingAlgorithms.SortCriteria, String> searchCriteria) {
+        List<EmployeeQuery> conjuncts = new ArrayList<>();
+        for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, String> entry : searchCriteria.entrySet()) {
+            conjuncts.add(EmployeeQuery.matching(entry.getKey(), entry.getValue()));
+        }
+        return plan(conjuncts);
+    }
+
+    /**
+     * Choose an execution order for single-field queries that must all match
+     */
+    public QueryPlan plan(List<EmployeeQuery> conjuncts) {
+        int totalRows = repository.size();
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (EmployeeQuery query : conjuncts) {
+            candidates.add(new Candidate(query, estimateSelectivity(query, totalRows)));
+        }
+        candidates.sort(Comparator.comparingDouble(c -> c.selectivity));
+
+        List<PlanStep> steps = new ArrayList<>();
+        List<Candidate> filters = new ArrayList<>();
+        double remaining = totalRows;
+
+        for (Candidate candidate : candidates) {
+            EmployeeIndexes.ValueIndex index = indexFor(candidate.query);
+            boolean useIndex;
+            if (index == null) {
+                useIndex = false;
+            } else if (steps.isEmpty()) {
+                // Start from an index only if it actually narrows the rows
+                useIndex = candidate.selectivity < 1.0;
+            } else {
+                // Probing costs one check per distinct value; verifying costs one per remaining row
+                useIndex = index.distinctValues() < remaining;
+            }
+
+            if (useIndex) {
+                remaining *= candidate.selectivity;
+                AccessPath path = steps.isEmpty() ? AccessPath.INDEX_SCAN : AccessPath.INDEX_INTERSECT;
+                steps.add(new PlanStep(path, candidate.query, (int) Math.round(remaining)));
+            } else {
+                filters.add(candidate);
+            }
+        }
+
+        if (steps.isEmpty()) {
+            steps.add(new PlanStep(AccessPath.FULL_SCAN, null, totalRows));
+        }
+        // Remaining criteria are verified row by row, most selective first
+        for (Candidate filter : filters) {
+            remaining *= filter.selectivity;
+            steps.add(new PlanStep(AccessPath.FILTER, filter.query, (int) Math.round(remaining)));
+        }
+        return new QueryPlan(steps, totalRows);
+    }
+
+    /**
+     * Execute a plan and record the actual row count of every step
+     */
+    public List<Employee> execute(QueryPlan plan) {
+        long startTime = System.nanoTime();
+        EmployeeBitmap candidates = null;
+        List<PlanStep> filters = new ArrayList<>();
+
+        for (PlanStep step : plan.steps) {
+            switch (step.accessPath) {
+                case FULL_SCAN:
+                    step.actualRows = repository.size();
+                    break;
+                case INDEX_SCAN:
+                case INDEX_INTERSECT:
+                    EmployeeBitmap matches = indexFor(step.query).match(step.query);
+                    candidates = candidates == null ? matches : EmployeeBitmap.and(candidates, matches);
+                    step.actualRows = candidates.cardinality();
+                    break;
+                case FILTER:
+                    filters.add(step);
+                    break;
+            }
+        }
+
+        // Verify remaining criteria, most selective first, counting survivors per step
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate<Employee>[] predicates = new Predicate[filters.size()];
+        int[] passed = new int[filters.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = filters.get(i).query.compile();
+        }
+
+        List<Employee> results = new ArrayList<>();
+        IntConsumer verify = ordinal -> {
+            Employee emp = repository.employeeAt(ordinal);
+            if (emp == null) return;
+            int f = 0;
+            while (f < predicates.length && predicates[f].test(emp)) {
+                passed[f++]++;
+            }
+            if (f == predicates.length) results.add(emp);
+        };
+        if (candidates == null) {
+            for (int ordinal = 0; ordinal < repository.ordinalLimit(); ordinal++) verify.accept(ordinal);
+        } else {
+            candidates.forEach(verify);
+        }
+        for (int i = 0; i < passed.length; i++) {
+            filters.get(i).actualRows = passed[i];
+        }
+
+        plan.executionTime = System.nanoTime() - startTime;
+        return results;
+    }
+
+    /**
+     * Estimated number of employees matching a query, without running it
+     * Exact from index counts for an indexed field, sampled otherwise.
+     */
+    public int estimateRows(EmployeeQuery query) {
+        int totalRows = repository.size();
+        return (int) Math.min(totalRows, Math.round(estimateSelectivity(query, totalRows) * totalRows));
+    }
+
+    /**
+     * Estimate the fraction of employees matching one criteria
+     */
+    private double estimateSelectivity(EmployeeQuery query, int totalRows) {
+        if (totalRows == 0) return 0.0;
+
+        EmployeeIndexes.ValueIndex index = indexFor(query);
+        if (index != null) {
+            return (double) index.count(query) / totalRows;
+        }
+
+        // Evenly spaced sample over the ordinal range
+        Predicate<Employee> predicate = query.compile();
+        int limit = repository.ordinalLimit();
+        int stride = Math.max(1, limit / SAMPLE_SIZE);
+        int sampled = 0, hits = 0;
+        for (int ordinal = 0; ordinal < limit; ordinal += stride) {
+            Employee emp = repository.employeeAt(ordinal);
+            if (emp == null) continue;
+            sampled++;
+            if (predicate.test(emp)) hits++;
+        }
+        // Smoothed so an unlucky sample never claims zero matches
+        return (hits + 0.5) / (sampled + 1.0);
+    }
+
+    /**
+     * Index able to answer a query, or null if its field is not indexed
+     */
+    private EmployeeIndexes.ValueIndex indexFor(EmployeeQuery query) {
+        return query.getField() == null ? null : repository.getIndexes().index(query.getField());
+    }
+}
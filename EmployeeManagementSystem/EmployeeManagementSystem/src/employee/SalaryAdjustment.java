@@ -0,0 +1,214 @@
+package employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Salary Adjustment
+ * Bulk raise (or cut) of base salaries by percentage, e.g.
+ * "+4% for rating >= 4 in Finance, +2% for everyone else".
+ * Rules are checked in order and the first matching rule applies. Targets are
+ * selected through the value indexes, new salaries are computed in parallel,
+ * and the whole change is committed as one atomic repository update (one event,
+ * one aggregate pass) and written as one record to the adjustment log.
+ */
+public class SalaryAdjustment {
+
+    /** Log file used by the GUI and CUI */
+    public static final String DEFAULT_LOG = "salary_adjustments.log";
+
+    /** Attempts before giving up when other changes keep interfering */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * One rule: employees matching the condition (null = everyone) get the percentage
+     */
+    private static class Rule {
+        final EmployeeQuery condition;
+        final double percent;
+
+        Rule(EmployeeQuery condition, double percent) {
+            this.condition = condition;
+            this.percent = percent;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%+.2f%% %s", percent, condition == null ? "for everyone else" : "for " + condition);
+        }
+    }
+
+    /**
+     * Outcome of an applied adjustment
+     */
+    public static class Result {
+        private final int employeeCount;
+        private final long deltaCents;
+        private final long durationNanos;
+
+        Result(int employeeCount, long deltaCents, long durationNanos) {
+            this.employeeCount = employeeCount;
+            this.deltaCents = deltaCents;
+            this.durationNanos = durationNanos;
+        }
+
+        public int getEmployeeCount() { return employeeCount; }
+        /** Change of total base salary in cents */
+        public long getDeltaCents() { return deltaCents; }
+        public long getDurationNanos() { return durationNanos; }
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Add a rule for employees matching a condition
+     */
+    public SalaryAdjustment when(EmployeeQuery condition, double percent) {
+        rules.add(new Rule(condition, percent));
+        return this;
+    }
+
+    /**
+     * Add a rule for every employee not matched by an earlier rule
+     */
+    public SalaryAdjustment otherwise(double percent) {
+        rules.add(new Rule(null, percent));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Description of all rules, e.g. "+4.00% for (DEPARTMENT = Finance AND ...); +2.00% for everyone else"
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Rule rule : rules) {
+            if (sb.length() > 0) sb.append("; ");
+            sb.append(rule);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Apply the adjustment to the repository and append one record to the log
+     * (log may be null to skip logging)
+     */
+    public Result apply(EmployeeRepository repository, Path log) throws IOException {
+        long startTime = System.nanoTime();
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            // Select targets and compute their new salaries from one consistent state
+            Plan plan = repository.read(() -> plan(repository));
+            double[] newSalaries = plan.newSalaries;
+            if (repository.updateAll(plan.targets, (emp, i) -> emp.setSalary(newSalaries[i]), plan.version)) {
+                Result result = new Result(plan.targets.size(), plan.deltaCents, System.nanoTime() - startTime);
+                if (log != null) writeLog(log, result);
+                return result;
+            }
+        }
+        throw new IllegalStateException("Employees kept changing; salary adjustment not applied");
+    }
+
+    /**
+     * Targets and new salaries for one attempt
+     */
+    private static class Plan {
+        long version;
+        List<Employee> targets;
+        double[] newSalaries;
+        long deltaCents;
+    }
+
+    private Plan plan(EmployeeRepository repository) {
+        Plan plan = new Plan();
+        plan.version = repository.getVersion();
+
+        // Rule number per ordinal, first matching rule wins
+        int[] ruleOf = new int[repository.ordinalLimit()];
+        Arrays.fill(ruleOf, -1);
+        List<Employee> targets = new ArrayList<>();
+        List<Double> percents = new ArrayList<>();
+        for (int r = 0; r < rules.size(); r++) {
+            Rule rule = rules.get(r);
+            List<Employee> matches = rule.condition == null
+                ? repository.getEmployees()
+                : SortingSearchingAlgorithms.filter(repository, rule.condition);
+            for (Employee emp : matches) {
+                int ordinal = repository.ordinalOf(emp);
+                if (ruleOf[ordinal] >= 0) continue;
+                ruleOf[ordinal] = r;
+                if (rule.percent != 0) {
+                    targets.add(emp);
+                    percents.add(rule.percent);
+                }
+            }
+        }
+
+        // New salaries, rounded to cents, computed in parallel
+        double[] newSalaries = new double[targets.size()];
+        long[] deltas = new long[targets.size()];
+        IntStream.range(0, targets.size()).parallel().forEach(i -> {
+            double salary = targets.get(i).getSalary();
+            long newCents = Money.toCents(salary * (1.0 + percents.get(i) / 100.0));
+            newSalaries[i] = Money.toDollars(newCents);
+            deltas[i] = newCents - Money.toCents(salary);
+        });
+
+        plan.targets = targets;
+        plan.newSalaries = newSalaries;
+        plan.deltaCents = SalaryKernels.sum(deltas, deltas.length);
+        return plan;
+    }
+
+    private void writeLog(Path log, Result result) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(log,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(String.format("%s | %s | %d employee(s) | base salary change %s",
+                LocalDateTime.now(), describe(), result.employeeCount, Money.format(result.deltaCents)));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Parse a condition such as "DEPARTMENT=Finance; PERFORMANCE_RATING>=4"
+     * Supported operators are =, >= and <= (the latter two for numeric criteria);
+     * conditions separated by ';' must all hold. A blank condition matches everyone.
+     */
+    public static EmployeeQuery parseCondition(String text) {
+        List<EmployeeQuery> parts = new ArrayList<>();
+        for (String part : text.split(";")) {
+            if (part.isBlank()) continue;
+            String operator = part.contains(">=") ? ">=" : part.contains("<=") ? "<=" : "=";
+            String[] sides = part.split(operator, 2);
+            if (sides.length != 2 || sides[1].isBlank()) {
+                throw new IllegalArgumentException("Expected CRITERIA" + operator + "value: " + part.trim());
+            }
+            SortingSearchingAlgorithms.SortCriteria field =
+                SortingSearchingAlgorithms.SortCriteria.valueOf(sides[0].trim().toUpperCase());
+            String value = sides[1].trim();
+            switch (operator) {
+                case ">=":
+                    parts.add(EmployeeQuery.between(field, Double.parseDouble(value), Double.POSITIVE_INFINITY));
+                    break;
+                case "<=":
+                    parts.add(EmployeeQuery.between(field, Double.NEGATIVE_INFINITY, Double.parseDouble(value)));
+                    break;
+                default:
+                    parts.add(EmployeeQuery.eq(field, value));
+            }
+        }
+        if (parts.isEmpty()) return null;
+        return parts.size() == 1 ? parts.get(0) : EmployeeQuery.and(parts.toArray(new EmployeeQuery[0]));
+    }
+}
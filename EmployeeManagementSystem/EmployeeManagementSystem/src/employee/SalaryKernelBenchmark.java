@@ -0,0 +1,106 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Salary Kernel Benchmark
+ * Compares the column kernels in {@link SalaryKernels} with the per-object
+ * calculateSalary() loop on a generated roster.
+ *
+ * Usage: java employee.SalaryKernelBenchmark [employees] [rounds]
+ */
+public class SalaryKernelBenchmark {
+
+    private static final String[] TYPES = {"Manager", "Intern", "Regular"};
+    private static final String[] DEPARTMENTS = {"IT", "HR", "Finance", "Sales", "Operations"};
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Employee> employees = generate(size);
+        SalaryKernels.Columns columns = SalaryKernels.columns(employees);
+        double[] total = new double[size];
+        long[] cents = new long[size];
+        byte[] mask = new byte[size];
+        double min = 40_000, max = 60_000;
+
+        System.out.printf("Salary kernels: %d employees, %d rounds%n%n", size, rounds);
+
+        // Sum of total salaries
+        report("Total payroll, calculateSalary() loop", size, rounds, () -> {
+            long sum = 0;
+            for (Employee emp : employees) sum += Money.toCents(emp.calculateSalary());
+            return sum;
+        });
+        report("Total payroll, column kernels", size, rounds, () -> {
+            SalaryKernels.totalSalaries(columns.salaries(), columns.bonusFractions(), total, size);
+            SalaryKernels.toCents(total, cents, size);
+            return SalaryKernels.sum(cents, size);
+        });
+
+        // Total salary between min and max
+        report("Range count, calculateSalary() loop", size, rounds, () -> {
+            long count = 0;
+            for (Employee emp : employees) {
+                double value = emp.calculateSalary();
+                if (value >= min && value <= max) count++;
+            }
+            return count;
+        });
+        report("Range count, column kernels", size, rounds, () -> {
+            SalaryKernels.totalSalaries(columns.salaries(), columns.bonusFractions(), total, size);
+            return SalaryKernels.rangeMask(total, min, max, mask, size);
+        });
+
+        // 3% raise for one department (applied to a copy so rounds are repeatable)
+        int it = columns.departmentCode("IT");
+        report("3% raise for IT, per-object loop", size, rounds, () -> {
+            double sum = 0;
+            for (Employee emp : employees) {
+                double salary = emp.getSalary();
+                if (emp.getDepartment().equalsIgnoreCase("IT")) salary *= 1.03;
+                sum += salary;
+            }
+            return (long) sum;
+        });
+        report("3% raise for IT, column kernels", size, rounds, () -> {
+            double[] salary = columns.salaries().clone();
+            SalaryKernels.equalsMask(columns.departmentCodes(), it, mask, size);
+            SalaryKernels.scaleMasked(salary, mask, 1.03, size);
+            return (long) salary[size - 1];
+        });
+    }
+
+    private interface Task {
+        long run();
+    }
+
+    private static void report(String name, int size, int rounds, Task task) {
+        long check = 0;
+        // Warm-up so both variants are measured after JIT compilation
+        for (int i = 0; i < Math.max(5, rounds / 2); i++) check += task.run();
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            check += task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-42s %9.3f ms  %6.2f ns/employee  (check %d)%n",
+            name, best / 1_000_000.0, (double) best / size, check % 1000);
+    }
+
+    private static List<Employee> generate(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.create(TYPES[random.nextInt(TYPES.length)], "E" + i, "Employee " + i,
+                DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                20_000 + random.nextInt(80_000) + random.nextInt(100) / 100.0, 1 + random.nextInt(5)));
+        }
+        return employees;
+    }
+}
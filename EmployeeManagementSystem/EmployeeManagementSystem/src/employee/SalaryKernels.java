@@ -0,0 +1,146 @@
+package employee;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salary Kernels
+ * Bulk salary arithmetic over primitive columns instead of Employee objects.
+ * Each kernel is a single counted loop over arrays with no calls, branches on
+ * objects or early exits, which is the shape the HotSpot JIT compiles to SIMD
+ * instructions (superword auto-vectorization). On JITs or CPUs where that does
+ * not happen, the same loops simply run as scalar code.
+ *
+ * Total salary is computed with the same formula as calculateSalary()
+ * (salary + salary * bonus), so results match the per-object loop exactly.
+ */
+public final class SalaryKernels {
+
+    private SalaryKernels() {
+    }
+
+    /**
+     * Column snapshot of a roster: one array per field, one index per employee
+     */
+    public static final class Columns {
+        private final Employee[] employees;
+        private final double[] salary;
+        private final double[] bonusFraction;
+        private final int[] rating;
+        private final int[] departmentCode;
+        private final Map<String, Integer> departmentCodes = new HashMap<>();
+
+        private Columns(int size) {
+            employees = new Employee[size];
+            salary = new double[size];
+            bonusFraction = new double[size];
+            rating = new int[size];
+            departmentCode = new int[size];
+        }
+
+        public int size() { return employees.length; }
+        public Employee employeeAt(int index) { return employees[index]; }
+        public double[] salaries() { return salary; }
+        public double[] bonusFractions() { return bonusFraction; }
+        public int[] ratings() { return rating; }
+        public int[] departmentCodes() { return departmentCode; }
+
+        /**
+         * Code of a department in this snapshot (case-insensitive), or -1 if absent
+         */
+        public int departmentCode(String department) {
+            Integer code = departmentCodes.get(department.toLowerCase());
+            return code == null ? -1 : code;
+        }
+    }
+
+    /**
+     * Copy a roster into columns (one pass over the objects)
+     */
+    public static Columns columns(List<Employee> employees) {
+        Columns columns = new Columns(employees.size());
+        int i = 0;
+        for (Employee emp : employees) {
+            columns.employees[i] = emp;
+            columns.salary[i] = emp.getSalary();
+            columns.bonusFraction[i] = bonusFraction(emp);
+            columns.rating[i] = emp.getPerformanceRating();
+            Integer code = columns.departmentCodes.computeIfAbsent(emp.getDepartment().toLowerCase(),
+                key -> columns.departmentCodes.size());
+            columns.departmentCode[i] = code;
+            i++;
+        }
+        return columns;
+    }
+
+    /**
+     * Automatic bonus of an employee under the current policy as a fraction of base salary
+     */
+    static double bonusFraction(Employee emp) {
+        return BonusPolicy.current().rateOf(emp) / 10_000.0;
+    }
+
+    // ---------------- Kernels ----------------
+
+    /**
+     * total[i] = salary[i] + salary[i] * bonus[i]  (bonus fractions from the BonusPolicy)
+     */
+    public static void totalSalaries(double[] salary, double[] bonus, double[] total, int n) {
+        for (int i = 0; i < n; i++) {
+            total[i] = salary[i] + salary[i] * bonus[i];
+        }
+    }
+
+    /**
+     * cents[i] = round(amount[i] * 100)
+     */
+    public static void toCents(double[] amount, long[] cents, int n) {
+        for (int i = 0; i < n; i++) {
+            cents[i] = Math.round(amount[i] * 100.0);
+        }
+    }
+
+    /**
+     * Sum of cents; integer addition is associative, so the JIT may reorder it freely
+     */
+    public static long sum(long[] cents, int n) {
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += cents[i];
+        }
+        return total;
+    }
+
+    /**
+     * mask[i] = 1 if min <= values[i] <= max, else 0; returns the number of matches
+     */
+    public static int rangeMask(double[] values, double min, double max, byte[] mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask[i] = (byte) (values[i] >= min & values[i] <= max ? 1 : 0);
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += mask[i];
+        }
+        return count;
+    }
+
+    /**
+     * mask[i] = 1 if codes[i] == code, else 0
+     */
+    public static void equalsMask(int[] codes, int code, byte[] mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask[i] = (byte) (codes[i] == code ? 1 : 0);
+        }
+    }
+
+    /**
+     * salary[i] *= factor where mask[i] is set (e.g. a 3% raise for one department)
+     */
+    public static void scaleMasked(double[] salary, byte[] mask, double factor, int n) {
+        for (int i = 0; i < n; i++) {
+            salary[i] = mask[i] != 0 ? salary[i] * factor : salary[i];
+        }
+    }
+}
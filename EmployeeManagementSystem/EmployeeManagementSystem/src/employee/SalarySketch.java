@@ -0,0 +1,210 @@
+package employee;
+
+import java.util.Arrays;
+
+/**
+ * Salary Sketch
+ * Streaming, mergeable quantile sketch (KLL) for salary percentiles.
+ * Keeps O(k log n) values instead of the whole distribution; with the default
+ * k = 200 the rank error of a percentile is around 1%. Small groups (fewer than
+ * k values) are answered exactly.
+ *
+ * Removals are supported by sketching removed values separately: the rank of
+ * a value is its rank among inserted values minus its rank among removed ones.
+ */
+public class SalarySketch {
+
+    private static final int DEFAULT_K = 200;
+
+    private final Compactor inserted;
+    private final Compactor removed;
+
+    public SalarySketch() {
+        this(DEFAULT_K);
+    }
+
+    public SalarySketch(int k) {
+        inserted = new Compactor(k);
+        removed = new Compactor(k);
+    }
+
+    /**
+     * Add one value
+     */
+    public void update(double value) {
+        inserted.add(value);
+    }
+
+    /**
+     * Remove one value that was added before
+     */
+    public void remove(double value) {
+        removed.add(value);
+    }
+
+    /**
+     * Number of values currently summarized
+     */
+    public long getCount() {
+        return inserted.count - removed.count;
+    }
+
+    /**
+     * Fold another sketch (e.g. of another partition) into this one
+     */
+    public void merge(SalarySketch other) {
+        inserted.merge(other.inserted);
+        removed.merge(other.removed);
+    }
+
+    /**
+     * Approximate value at a quantile between 0 and 1 (0.5 = median)
+     * Returns 0 for an empty sketch.
+     */
+    public double quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    /**
+     * Approximate values at several quantiles, sorting the retained values once
+     */
+    public double[] quantiles(double... qs) {
+        double[] results = new double[qs.length];
+        long total = getCount();
+        if (total <= 0) return results;
+
+        // Retained values with signed weights: +2^level inserted, -2^level removed
+        int size = inserted.retained() + removed.retained();
+        double[] values = new double[size];
+        long[] weights = new long[size];
+        int n = inserted.collect(values, weights, 0, 1);
+        removed.collect(values, weights, n, -1);
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        for (int j = 0; j < qs.length; j++) {
+            double target = Math.max(1, Math.ceil(Math.min(1.0, Math.max(0.0, qs[j])) * total));
+            long cumulative = 0;
+            double result = values[order[size - 1]];
+            for (int i = 0; i < size; i++) {
+                cumulative += weights[order[i]];
+                if (cumulative >= target) {
+                    result = values[order[i]];
+                    break;
+                }
+            }
+            results[j] = result;
+        }
+        return results;
+    }
+
+    /**
+     * Hierarchy of compactors: level h holds values that each stand for 2^h inputs.
+     * When the sketch is full the lowest overflowing level is sorted and every
+     * other value moves up a level.
+     */
+    private static final class Compactor {
+        private final int k;
+        private double[][] levels = new double[1][];
+        private int[] sizes = new int[1];
+        private int[] capacities = new int[1];
+        private long count;
+        private int retained;
+        private int totalCapacity;
+        private boolean coin; // Alternates which half of a compacted level survives
+
+        Compactor(int k) {
+            this.k = k;
+            levels[0] = new double[8];
+            capacities[0] = capacity(0);
+            totalCapacity = capacities[0];
+        }
+
+        void add(double value) {
+            append(0, value);
+            count++;
+            compress();
+        }
+
+        void merge(Compactor other) {
+            for (int h = 0; h < other.levels.length; h++) {
+                while (h >= levels.length) addLevel();
+                for (int i = 0; i < other.sizes[h]; i++) append(h, other.levels[h][i]);
+            }
+            count += other.count;
+            compress();
+        }
+
+        int retained() {
+            return retained;
+        }
+
+        int collect(double[] values, long[] weights, int offset, int sign) {
+            for (int h = 0; h < levels.length; h++) {
+                long weight = sign * (1L << h);
+                for (int i = 0; i < sizes[h]; i++) {
+                    values[offset] = levels[h][i];
+                    weights[offset++] = weight;
+                }
+            }
+            return offset;
+        }
+
+        private int capacity(int level) {
+            int depth = levels.length - 1 - level;
+            return Math.max(2, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+        }
+
+        /**
+         * While more values are retained than all levels together may hold,
+         * compact the lowest level that is over its own capacity
+         */
+        private void compress() {
+            while (retained > totalCapacity) {
+                for (int h = 0; h < levels.length; h++) {
+                    if (sizes[h] >= capacities[h]) {
+                        compact(h);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void compact(int h) {
+            if (h + 1 == levels.length) addLevel();
+            double[] level = levels[h];
+            int size = sizes[h];
+            Arrays.sort(level, 0, size);
+
+            // An odd value out stays behind so weights remain exact
+            int start = size % 2;
+            int offset = coin ? 1 : 0;
+            coin = !coin;
+            for (int i = start + offset; i < size; i += 2) append(h + 1, level[i]);
+            retained -= size - start;
+            sizes[h] = start;
+        }
+
+        private void addLevel() {
+            int n = levels.length;
+            levels = Arrays.copyOf(levels, n + 1);
+            sizes = Arrays.copyOf(sizes, n + 1);
+            capacities = new int[n + 1];
+            levels[n] = new double[8];
+            // Capacities shrink for the lower levels whenever a level is added
+            totalCapacity = 0;
+            for (int h = 0; h <= n; h++) {
+                capacities[h] = capacity(h);
+                totalCapacity += capacities[h];
+            }
+        }
+
+        private void append(int h, double value) {
+            if (sizes[h] == levels[h].length) levels[h] = Arrays.copyOf(levels[h], levels[h].length * 2);
+            levels[h][sizes[h]++] = value;
+            retained++;
+        }
+    }
+}
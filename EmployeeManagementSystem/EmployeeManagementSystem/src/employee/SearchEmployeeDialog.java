@@ -3,21 +3,30 @@ package employee;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Search Employee Dialog
  * Dialog for searching and viewing employee details
+ * Results are read through a {@link QueryCursor} one page at a time; "More"
+ * appends the next page.
  */
 public class SearchEmployeeDialog extends JDialog {
     
-    private LinkedList<Employee> employees;
+    private static final int PAGE_SIZE = 200;
+    
+    private final EmployeeRepository repository;
     private JTable searchTable;
     private DefaultTableModel searchTableModel;
+    private JButton moreButton;
+    private JLabel pageLabel;
+    private EmployeeQuery currentQuery;   // null = all employees
+    private QueryCursor cursor;
+    private int estimatedCount;
     
-    public SearchEmployeeDialog(JFrame parent, LinkedList<Employee> employees) {
+    public SearchEmployeeDialog(JFrame parent, EmployeeRepository repository) {
         super(parent, "Search Employees", true);
-        this.employees = employees;
+        this.repository = repository;
         initializeDialog();
     }
     
@@ -75,10 +84,14 @@ public class SearchEmployeeDialog extends JDialog {
         
         // Create button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
+        pageLabel = new JLabel();
+        moreButton = new JButton("▶ More");
         JButton viewDetailsButton = new JButton("👁️ View Details");
         JButton saveResultsButton = new JButton("💾 Save Results");
         JButton closeButton = new JButton("Close");
         
+        buttonPanel.add(pageLabel);
+        buttonPanel.add(moreButton);
         buttonPanel.add(viewDetailsButton);
         buttonPanel.add(saveResultsButton);
         buttonPanel.add(closeButton);
@@ -88,6 +101,7 @@ public class SearchEmployeeDialog extends JDialog {
         // Add action listeners
         searchButton.addActionListener(e -> performSearch(searchTypeCombo, searchField));
         showAllButton.addActionListener(e -> showAllEmployees());
+        moreButton.addActionListener(e -> showNextPage());
         viewDetailsButton.addActionListener(e -> viewEmployeeDetails());
         saveResultsButton.addActionListener(e -> saveSearchResults());
         closeButton.addActionListener(e -> dispose());
@@ -112,33 +126,21 @@ public class SearchEmployeeDialog extends JDialog {
             return;
         }
         
-        LinkedList<Employee> results = new LinkedList<>();
-        
+        EmployeeQuery query;
         switch (searchType) {
             case "ID":
-                for (Employee emp : employees) {
-                    if (emp.getId().toLowerCase().contains(searchTerm.toLowerCase())) {
-                        results.add(emp);
-                    }
-                }
+                query = EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.ID, searchTerm);
                 break;
                 
             case "Name":
-                for (Employee emp : employees) {
-                    if (emp.getName().toLowerCase().contains(searchTerm.toLowerCase())) {
-                        results.add(emp);
-                    }
-                }
+                query = EmployeeQuery.contains(SortingSearchingAlgorithms.SortCriteria.NAME, searchTerm);
                 break;
                 
-            case "Rating":
+            default: // Rating
                 try {
                     int minRating = Integer.parseInt(searchTerm);
-                    for (Employee emp : employees) {
-                        if (emp.getPerformanceRating() >= minRating) {
-                            results.add(emp);
-                        }
-                    }
+                    query = EmployeeQuery.between(SortingSearchingAlgorithms.SortCriteria.PERFORMANCE_RATING,
+                                                  minRating, Integer.MAX_VALUE);
                 } catch (NumberFormatException e) {
                     JOptionPane.showMessageDialog(this, "Please enter a valid rating number (1-5).", 
                                                 "Invalid Rating", JOptionPane.ERROR_MESSAGE);
@@ -147,9 +149,9 @@ public class SearchEmployeeDialog extends JDialog {
                 break;
         }
         
-        displaySearchResults(results);
+        displaySearchResults(query);
         
-        if (results.isEmpty()) {
+        if (searchTableModel.getRowCount() == 0) {
             JOptionPane.showMessageDialog(this, "No employees found matching the search criteria.", 
                                         "No Results", JOptionPane.INFORMATION_MESSAGE);
         }
@@ -159,16 +161,26 @@ public class SearchEmployeeDialog extends JDialog {
      * Show all employees
      */
     private void showAllEmployees() {
-        displaySearchResults(employees);
+        displaySearchResults(null);
     }
     
     /**
-     * Display search results in the table
+     * Start showing the matches of a query (null for all employees) from the first page
      */
-    private void displaySearchResults(LinkedList<Employee> results) {
+    private void displaySearchResults(EmployeeQuery query) {
+        currentQuery = query;
+        cursor = QueryCursor.open(repository, query);
+        estimatedCount = cursor.estimateCount();
         searchTableModel.setRowCount(0);
-        int serialNumber = 1;
-        for (Employee emp : results) {
+        showNextPage();
+    }
+    
+    /**
+     * Append the next page of results to the table
+     */
+    private void showNextPage() {
+        int serialNumber = searchTableModel.getRowCount() + 1;
+        for (Employee emp : cursor.next(PAGE_SIZE)) {
             Object[] row = {
                 serialNumber++,                    // S.N.
                 emp.getClass().getSimpleName(),   // Type
@@ -181,6 +193,10 @@ public class SearchEmployeeDialog extends JDialog {
             };
             searchTableModel.addRow(row);
         }
+        moreButton.setEnabled(cursor.hasMore());
+        pageLabel.setText(cursor.hasMore()
+            ? "Showing " + searchTableModel.getRowCount() + " of about " + Math.max(estimatedCount, searchTableModel.getRowCount())
+            : "Showing all " + searchTableModel.getRowCount());
     }
     
     /**
@@ -238,44 +254,22 @@ public class SearchEmployeeDialog extends JDialog {
      * Save search results to file
      */
     private void saveSearchResults() {
-        LinkedList<Employee> currentResults = new LinkedList<>();
-        
-        // Get current displayed results
-        for (int i = 0; i < searchTableModel.getRowCount(); i++) {
-            String empId = (String) searchTableModel.getValueAt(i, 2); // ID is now column 2
-            Employee emp = findEmployeeById(empId);
-            if (emp != null) {
-                currentResults.add(emp);
-            }
-        }
-        
-        if (currentResults.isEmpty()) {
+        if (searchTableModel.getRowCount() == 0) {
             JOptionPane.showMessageDialog(this, "No results to save.", 
                                         "Empty Results", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Files", "csv", "txt"));
-        
-        int result = fileChooser.showSaveDialog(this);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            String filename = fileChooser.getSelectedFile().getAbsolutePath();
-            FileHandler.saveQueryResults(currentResults, filename);
-            JOptionPane.showMessageDialog(this, "Search results saved successfully!", 
-                                        "Save Success", JOptionPane.INFORMATION_MESSAGE);
-        }
+        // All matches, not just the pages shown so far, streamed to the file
+        EmployeeQuery query = currentQuery;
+        ExportTask.start(this, (file, format, progress) ->
+            QueryExporter.export(repository, query, file, format, progress));
     }
     
     /**
      * Find employee by ID
      */
     private Employee findEmployeeById(String id) {
-        for (Employee emp : employees) {
-            if (emp.getId().equalsIgnoreCase(id)) {
-                return emp;
-            }
-        }
-        return null;
+        return repository.findById(id);
     }
 }
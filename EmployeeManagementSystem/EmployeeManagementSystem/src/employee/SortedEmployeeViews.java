@@ -0,0 +1,224 @@
+package employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sorted Employee Views
+ * Keeps one sorted copy of the employee list per sort criteria so that binary
+ * searches do not have to re-sort the roster on every query.
+ * A view is built the first time it is requested and afterwards patched in
+ * place on every add, update and remove announced by the repository.
+ * Dense ranks per ordinal are derived from a view on demand for sorting by
+ * several criteria at once, and dropped when a change can shift them.
+ * Readers may build views and ranks concurrently under the repository read
+ * lock, so each one is built once inside a concurrent map and safely
+ * published; the patches run under the write lock.
+ */
+public class SortedEmployeeViews implements EmployeeRepository.ChangeListener {
+
+    private final EmployeeRepository repository;
+    private final Map<SortingSearchingAlgorithms.SortCriteria, ArrayList<Employee>> views = new ConcurrentHashMap<>();
+    private final Map<SortingSearchingAlgorithms.SortCriteria, int[]> ranks = new ConcurrentHashMap<>();
+
+    public SortedEmployeeViews(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Get the employees sorted ascending by the given criteria
+     * Sorted with {@link SortingSearchingAlgorithms#keyComparator}, so it can be
+     * passed directly to lowerBound/upperBound/binarySearchAll/prefixSearch.
+     */
+    public List<Employee> view(SortingSearchingAlgorithms.SortCriteria criteria) {
+        ArrayList<Employee> view = views.computeIfAbsent(criteria, c -> {
+            ArrayList<Employee> sorted = new ArrayList<>(repository.getEmployees());
+            sorted.sort(SortingSearchingAlgorithms.keyComparator(c));
+            return sorted;
+        });
+        return Collections.unmodifiableList(view);
+    }
+
+    /**
+     * Rank of every employee by the given criteria, indexed by ordinal
+     * Employees with equal values share a rank, ranks are consecutive from 0,
+     * and free ordinals hold -1. Computed in one pass over the sorted view.
+     */
+    public int[] ranks(SortingSearchingAlgorithms.SortCriteria criteria) {
+        return ranks.computeIfAbsent(criteria, c -> {
+            Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(c);
+            int[] rank = new int[repository.ordinalLimit()];
+            Arrays.fill(rank, -1);
+            int current = -1;
+            Employee previous = null;
+            for (Employee emp : view(c)) {
+                if (previous == null || comparator.compare(previous, emp) != 0) current++;
+                rank[repository.ordinalOf(emp)] = current;
+                previous = emp;
+            }
+            return rank;
+        });
+    }
+
+    /**
+     * Check whether a view has already been built
+     */
+    public boolean isBuilt(SortingSearchingAlgorithms.SortCriteria criteria) {
+        return views.containsKey(criteria);
+    }
+
+    /**
+     * Drop all cached views; they are rebuilt on next use
+     */
+    public void invalidateAll() {
+        views.clear();
+        ranks.clear();
+    }
+
+    @Override
+    public void employeesChanged(EmployeeRepository.ChangeEvent event) {
+        // Ranks shift when employees come or go, and for any criteria whose values changed
+        if (event.getType() == EmployeeRepository.ChangeType.UPDATED) {
+            ranks.keySet().removeIf(criteria -> anyKeyChanged(event, criteria));
+        } else if (event.getType() == EmployeeRepository.ChangeType.REPRICED) {
+            ranks.remove(SortingSearchingAlgorithms.SortCriteria.TOTAL_SALARY);
+        } else if (event.getType() != EmployeeRepository.ChangeType.REORDERED) {
+            ranks.clear();
+        }
+        switch (event.getType()) {
+            case ADDED:
+                if (event.getEmployees().size() > 1) {
+                    // Merge the sorted additions in one pass instead of one shift per employee
+                    for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ArrayList<Employee>> entry : views.entrySet()) {
+                        merge(entry.getValue(), event.getEmployees(), entry.getKey());
+                    }
+                    break;
+                }
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ArrayList<Employee>> entry : views.entrySet()) {
+                    for (Employee emp : event.getEmployees()) {
+                        insert(entry.getValue(), emp, entry.getKey());
+                    }
+                }
+                break;
+            case REMOVED:
+                if (event.getEmployees().size() > 1) {
+                    // Compact each view in one pass instead of one shift per employee
+                    Set<Employee> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+                    removed.addAll(event.getEmployees());
+                    for (ArrayList<Employee> view : views.values()) view.removeIf(removed::contains);
+                    break;
+                }
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ArrayList<Employee>> entry : views.entrySet()) {
+                    for (Employee emp : event.getEmployees()) {
+                        remove(entry.getValue(), emp, emp, entry.getKey());
+                    }
+                }
+                break;
+            case UPDATED:
+                if (event.getEmployees().size() > 1) {
+                    // All employees already carry their new values, so a view with several
+                    // moved entries is no longer sorted around them; rebuild it on next use
+                    views.entrySet().removeIf(entry -> anyKeyChanged(event, entry.getKey()));
+                    break;
+                }
+                for (Map.Entry<SortingSearchingAlgorithms.SortCriteria, ArrayList<Employee>> entry : views.entrySet()) {
+                    Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(entry.getKey());
+                    for (int i = 0; i < event.getEmployees().size(); i++) {
+                        Employee emp = event.getEmployees().get(i);
+                        Employee before = event.getBefore().get(i);
+                        if (comparator.compare(before, emp) == 0) continue; // Position unchanged
+                        remove(entry.getValue(), emp, before, entry.getKey());
+                        insert(entry.getValue(), emp, entry.getKey());
+                    }
+                }
+                break;
+            case RELOADED:
+                invalidateAll();
+                break;
+            case REPRICED:
+                // Only the total salary order depends on the bonus policy
+                views.remove(SortingSearchingAlgorithms.SortCriteria.TOTAL_SALARY);
+                break;
+            case REORDERED:
+                // Display order does not affect sorted views
+                break;
+        }
+    }
+
+    private static boolean anyKeyChanged(EmployeeRepository.ChangeEvent event,
+                                         SortingSearchingAlgorithms.SortCriteria criteria) {
+        Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(criteria);
+        for (int i = 0; i < event.getEmployees().size(); i++) {
+            if (comparator.compare(event.getBefore().get(i), event.getEmployees().get(i)) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Insert after any equal values so the view stays stable
+     */
+    private void insert(ArrayList<Employee> view, Employee emp, SortingSearchingAlgorithms.SortCriteria criteria) {
+        Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(criteria);
+        int left = 0, right = view.size();
+        while (left < right) {
+            int mid = left + (right - left) / 2;
+            if (comparator.compare(view.get(mid), emp) <= 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        view.add(left, emp);
+    }
+
+    /**
+     * Merge several employees into a view, each after any equal values
+     */
+    private void merge(ArrayList<Employee> view, List<Employee> added, SortingSearchingAlgorithms.SortCriteria criteria) {
+        Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(criteria);
+        List<Employee> sortedAdded = new ArrayList<>(added);
+        sortedAdded.sort(comparator);
+        ArrayList<Employee> merged = new ArrayList<>(view.size() + sortedAdded.size());
+        int i = 0;
+        for (Employee emp : sortedAdded) {
+            while (i < view.size() && comparator.compare(view.get(i), emp) <= 0) merged.add(view.get(i++));
+            merged.add(emp);
+        }
+        merged.addAll(view.subList(i, view.size()));
+        view.clear();
+        view.addAll(merged);
+    }
+
+    /**
+     * Remove an employee, locating it by the key it was sorted under
+     */
+    private void remove(ArrayList<Employee> view, Employee emp, Employee sortedAs,
+                        SortingSearchingAlgorithms.SortCriteria criteria) {
+        Comparator<Employee> comparator = SortingSearchingAlgorithms.keyComparator(criteria);
+        int left = 0, right = view.size();
+        while (left < right) {
+            int mid = left + (right - left) / 2;
+            if (comparator.compare(view.get(mid), sortedAs) < 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        for (int i = left; i < view.size(); i++) {
+            if (view.get(i) == emp) {
+                view.remove(i);
+                return;
+            }
+            if (comparator.compare(view.get(i), sortedAs) > 0) break;
+        }
+        // Not found where expected (employee mutated outside the repository)
+        view.remove(emp);
+    }
+}
@@ -1,6 +1,9 @@
 package employee;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * Sorting and Searching Algorithms Utility Class
@@ -8,6 +11,12 @@ import java.util.*;
  */
 public class SortingSearchingAlgorithms {
 
+    /** Below this many employees the parallel top-K runs sequentially */
+    private static final int PARALLEL_TOP_K_THRESHOLD = 10_000;
+
+    /** Employees scanned between interruption checks in interruptible filters */
+    private static final int INTERRUPT_CHECK_INTERVAL = 4096;
+
     /**
      * Enum for sorting criteria
      */
@@ -208,6 +217,119 @@ public class SortingSearchingAlgorithms {
         return null;
     }
 
+    /**
+     * Lower Bound Binary Search
+     * Returns the index of the first employee whose value is not less than searchValue.
+     * The list must be sorted with {@link #keyComparator(SortCriteria)}.
+     * Numeric criteria expect a numeric searchValue (NumberFormatException otherwise).
+     * Time Complexity: O(log n)
+     */
+    public static int lowerBound(List<Employee> sortedEmployees, String searchValue, SortCriteria criteria) {
+        return bound(sortedEmployees, searchValue, criteria, false);
+    }
+
+    /**
+     * Upper Bound Binary Search
+     * Returns the index of the first employee whose value is greater than searchValue.
+     * Time Complexity: O(log n)
+     */
+    public static int upperBound(List<Employee> sortedEmployees, String searchValue, SortCriteria criteria) {
+        return bound(sortedEmployees, searchValue, criteria, true);
+    }
+
+    private static int bound(List<Employee> sortedEmployees, String searchValue, SortCriteria criteria,
+                             boolean upper) {
+        double numericKey = isNumeric(criteria) ? Double.parseDouble(searchValue.trim()) : 0.0;
+        int left = 0, right = sortedEmployees.size();
+
+        while (left < right) {
+            int mid = left + (right - left) / 2;
+            int comparison = compareToKey(sortedEmployees.get(mid), criteria, searchValue, numericKey);
+            if (comparison < 0 || (upper && comparison == 0)) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Binary Search returning every match
+     * Uses lower/upper bound so all employees with an equal value are returned,
+     * as a contiguous slice of the sorted list.
+     * Time Complexity: O(log n)
+     */
+    public static List<Employee> binarySearchAll(List<Employee> sortedEmployees, String searchValue,
+                                                 SortCriteria criteria) {
+        if (sortedEmployees == null || sortedEmployees.isEmpty()) return Collections.emptyList();
+        try {
+            int from = lowerBound(sortedEmployees, searchValue, criteria);
+            int to = upperBound(sortedEmployees, searchValue, criteria);
+            return sortedEmployees.subList(from, to);
+        } catch (NumberFormatException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Prefix Search on a sorted list
+     * All values starting with the prefix (ignoring case) form a contiguous slice.
+     * Numeric criteria fall back to exact matching.
+     * Time Complexity: O(log n)
+     */
+    public static List<Employee> prefixSearch(List<Employee> sortedEmployees, String prefix, SortCriteria criteria) {
+        if (isNumeric(criteria)) return binarySearchAll(sortedEmployees, prefix, criteria);
+        if (sortedEmployees == null || sortedEmployees.isEmpty()) return Collections.emptyList();
+
+        int from = lowerBound(sortedEmployees, prefix, criteria);
+        int left = from, right = sortedEmployees.size();
+        while (left < right) {
+            int mid = left + (right - left) / 2;
+            String value = getEmployeeValue(sortedEmployees.get(mid), criteria);
+            if (comparePrefixIgnoreCase(value, prefix) <= 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return sortedEmployees.subList(from, left);
+    }
+
+    /**
+     * Comparator matching the search helpers above:
+     * text criteria ignore case, numeric criteria compare by value
+     */
+    public static Comparator<Employee> keyComparator(SortCriteria criteria) {
+        switch (criteria) {
+            case SALARY:
+                return Comparator.comparingDouble(Employee::getSalary);
+            case PERFORMANCE_RATING:
+                return Comparator.comparingInt(Employee::getPerformanceRating);
+            case TOTAL_SALARY:
+                return Comparator.comparingDouble(Employee::calculateSalary);
+            default:
+                return (emp1, emp2) -> String.CASE_INSENSITIVE_ORDER.compare(
+                    getEmployeeValue(emp1, criteria), getEmployeeValue(emp2, criteria));
+        }
+    }
+
+    /**
+     * Comparator giving the same order as the sort algorithms above
+     */
+    public static Comparator<Employee> sortComparator(SortCriteria criteria, SortOrder order) {
+        return (emp1, emp2) -> compareEmployees(emp1, emp2, criteria, order);
+    }
+
+    /**
+     * Check whether a criteria holds a numeric value
+     */
+    public static boolean isNumeric(SortCriteria criteria) {
+        return criteria == SortCriteria.SALARY
+            || criteria == SortCriteria.PERFORMANCE_RATING
+            || criteria == SortCriteria.TOTAL_SALARY;
+    }
+
     /**
      * Linear Search Algorithm Implementation
      * Time Complexity: O(n)
@@ -215,14 +337,20 @@ public class SortingSearchingAlgorithms {
      * Works with unsorted lists
      */
     public static List<Employee> linearSearch(List<Employee> employees, String searchValue, SortCriteria criteria) {
+        return filter(employees, EmployeeQuery.matching(criteria, searchValue));
+    }
+
+    /**
+     * Linear scan with a typed query
+     * The query is compiled once and evaluated on every employee.
+     */
+    public static List<Employee> filter(List<Employee> employees, EmployeeQuery query) {
         List<Employee> results = new ArrayList<>();
         if (employees == null || employees.isEmpty()) return results;
 
-        String searchLower = searchValue.toLowerCase();
-        
+        Predicate<Employee> predicate = query.compile();
         for (Employee emp : employees) {
-            String empValue = getEmployeeValue(emp, criteria).toLowerCase();
-            if (empValue.contains(searchLower)) {
+            if (predicate.test(emp)) {
                 results.add(emp);
             }
         }
@@ -230,49 +358,87 @@ public class SortingSearchingAlgorithms {
     }
 
     /**
-     * Advanced Search with Multiple Criteria
-     * Supports partial matches and multiple search terms
+     * Linear scan that can be abandoned part-way, e.g. when a newer search replaces it
+     * Throws CancellationException if the calling thread is interrupted.
      */
-    public static List<Employee> advancedSearch(List<Employee> employees, Map<SortCriteria, String> searchCriteria) {
+    public static List<Employee> filterInterruptibly(List<Employee> employees, EmployeeQuery query) {
         List<Employee> results = new ArrayList<>();
-        if (employees == null || employees.isEmpty()) return results;
-
-        for (Employee emp : employees) {
-            boolean matchesAll = true;
-            
-            for (Map.Entry<SortCriteria, String> entry : searchCriteria.entrySet()) {
-                String empValue = getEmployeeValue(emp, entry.getKey()).toLowerCase();
-                String searchValue = entry.getValue().toLowerCase();
-                
-                if (!empValue.contains(searchValue)) {
-                    matchesAll = false;
-                    break;
-                }
+        Predicate<Employee> predicate = query.compile();
+        for (int i = 0; i < employees.size(); i++) {
+            if (i % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Search cancelled");
             }
-            
-            if (matchesAll) {
+            Employee emp = employees.get(i);
+            if (predicate.test(emp)) {
                 results.add(emp);
             }
         }
         return results;
     }
 
+    /**
+     * Advanced Search with Multiple Criteria
+     * Supports partial matches on text fields, exact matches on numeric fields
+     * and multiple search terms
+     */
+    public static List<Employee> advancedSearch(List<Employee> employees, Map<SortCriteria, String> searchCriteria) {
+        return filter(employees, toQuery(searchCriteria));
+    }
+
+    /**
+     * Filter a repository with a typed query
+     * Fully indexed queries (type, department, rating) are answered with bitmap
+     * AND/OR; anything else falls back to a linear scan.
+     * Indexed results are returned in ordinal (insertion) order.
+     */
+    public static List<Employee> filter(EmployeeRepository repository, EmployeeQuery query) {
+        return repository.read(() -> {
+            EmployeeBitmap bitmap = repository.getIndexes().evaluate(query);
+            if (bitmap == null) return filter(repository.getEmployees(), query);
+
+            List<Employee> results = new ArrayList<>(bitmap.cardinality());
+            bitmap.forEach(ordinal -> results.add(repository.employeeAt(ordinal)));
+            return results;
+        });
+    }
+
+    /**
+     * Count employees matching a typed query without materializing them
+     */
+    public static int count(EmployeeRepository repository, EmployeeQuery query) {
+        return repository.read(() -> repository.getIndexes().count(query));
+    }
+
+    /**
+     * Convert criteria/term pairs into a typed query (all terms must match)
+     */
+    public static EmployeeQuery toQuery(Map<SortCriteria, String> searchCriteria) {
+        EmployeeQuery[] terms = new EmployeeQuery[searchCriteria.size()];
+        int i = 0;
+        for (Map.Entry<SortCriteria, String> entry : searchCriteria.entrySet()) {
+            terms[i++] = EmployeeQuery.matching(entry.getKey(), entry.getValue());
+        }
+        return EmployeeQuery.and(terms);
+    }
+
+    /**
+     * Advanced Search over a repository
+     * Same matching rules as above, but planned by {@link QueryPlanner}: the most
+     * selective index is used first and the other criteria are only verified on
+     * the remaining candidates. Results are returned in ordinal (insertion) order.
+     */
+    public static List<Employee> advancedSearch(EmployeeRepository repository,
+                                                Map<SortCriteria, String> searchCriteria) {
+        return new QueryPlanner(repository).search(searchCriteria);
+    }
+
     /**
      * Range Search Algorithm
      * Find employees within a specific range for numeric criteria
      */
     public static List<Employee> rangeSearch(List<Employee> employees, SortCriteria criteria, 
                                           double minValue, double maxValue) {
-        List<Employee> results = new ArrayList<>();
-        if (employees == null || employees.isEmpty()) return results;
-
-        for (Employee emp : employees) {
-            double empValue = getEmployeeNumericValue(emp, criteria);
-            if (empValue >= minValue && empValue <= maxValue) {
-                results.add(emp);
-            }
-        }
-        return results;
+        return filter(employees, EmployeeQuery.between(criteria, minValue, maxValue));
     }
 
     /**
@@ -344,6 +510,83 @@ public class SortingSearchingAlgorithms {
         return results;
     }
 
+    /**
+     * Top-K Selection with a Bounded Heap
+     * Returns the first k employees of the given order without sorting the list:
+     * DESCENDING gives the k highest values, ASCENDING the k lowest.
+     * Time Complexity: O(n log k)
+     * Space Complexity: O(k)
+     */
+    public static List<Employee> topK(List<Employee> employees, SortCriteria criteria, SortOrder order, int k) {
+        if (employees == null || employees.isEmpty() || k <= 0) return new ArrayList<>();
+
+        Comparator<Employee> inOrder = sortComparator(criteria, order);
+        PriorityQueue<Employee> heap = newTopKHeap(inOrder, Math.min(k, employees.size()));
+        for (Employee emp : employees) {
+            offerTopK(heap, emp, k, inOrder);
+        }
+        return drainTopK(heap, inOrder);
+    }
+
+    /**
+     * Parallel Top-K Selection
+     * Each partition keeps its own bounded heap; the partial heaps are then
+     * merged into one. Small lists fall back to the sequential version.
+     * Time Complexity: O((n / p) log k + p k log k) with p partitions
+     */
+    public static List<Employee> topKParallel(List<Employee> employees, SortCriteria criteria, SortOrder order, int k) {
+        if (employees == null || employees.size() < PARALLEL_TOP_K_THRESHOLD || k <= 0) {
+            return topK(employees, criteria, order, k);
+        }
+
+        // Array snapshot so partitions have O(1) access even for linked lists
+        Employee[] snapshot = employees.toArray(new Employee[0]);
+        Comparator<Employee> inOrder = sortComparator(criteria, order);
+        int partitions = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int chunkSize = (snapshot.length + partitions - 1) / partitions;
+        int capacity = Math.min(k, chunkSize);
+
+        return IntStream.range(0, partitions).parallel()
+            .mapToObj(p -> {
+                PriorityQueue<Employee> heap = newTopKHeap(inOrder, capacity);
+                int end = Math.min(snapshot.length, (p + 1) * chunkSize);
+                for (int i = p * chunkSize; i < end; i++) {
+                    offerTopK(heap, snapshot[i], k, inOrder);
+                }
+                return heap;
+            })
+            .reduce((left, right) -> {
+                for (Employee emp : right) {
+                    offerTopK(left, emp, k, inOrder);
+                }
+                return left;
+            })
+            .map(heap -> drainTopK(heap, inOrder))
+            .orElseGet(ArrayList::new);
+    }
+
+    /**
+     * Heap whose root is the last of the kept employees, i.e. the first to evict
+     */
+    private static PriorityQueue<Employee> newTopKHeap(Comparator<Employee> inOrder, int capacity) {
+        return new PriorityQueue<>(Math.max(1, capacity), inOrder.reversed());
+    }
+
+    private static void offerTopK(PriorityQueue<Employee> heap, Employee emp, int k, Comparator<Employee> inOrder) {
+        if (heap.size() < k) {
+            heap.add(emp);
+        } else if (inOrder.compare(emp, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(emp);
+        }
+    }
+
+    private static List<Employee> drainTopK(PriorityQueue<Employee> heap, Comparator<Employee> inOrder) {
+        List<Employee> results = new ArrayList<>(heap);
+        results.sort(inOrder);
+        return results;
+    }
+
     /**
      * Helper method to compare two employees based on criteria and order
      */
@@ -380,7 +623,7 @@ public class SortingSearchingAlgorithms {
     /**
      * Helper method to get employee value based on criteria
      */
-    private static String getEmployeeValue(Employee emp, SortCriteria criteria) {
+    static String getEmployeeValue(Employee emp, SortCriteria criteria) {
         switch (criteria) {
             case ID:
                 return emp.getId();
@@ -417,6 +660,34 @@ public class SortingSearchingAlgorithms {
         }
     }
 
+    /**
+     * Helper method to compare an employee value with a search key
+     */
+    private static int compareToKey(Employee emp, SortCriteria criteria, String textKey, double numericKey) {
+        if (isNumeric(criteria)) {
+            return Double.compare(getEmployeeNumericValue(emp, criteria), numericKey);
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(getEmployeeValue(emp, criteria), textKey);
+    }
+
+    /**
+     * Helper method to compare the leading characters of a value with a prefix,
+     * ignoring case in the same way as String.CASE_INSENSITIVE_ORDER
+     */
+    private static int comparePrefixIgnoreCase(String value, String prefix) {
+        int length = Math.min(value.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = value.charAt(i);
+            char c2 = prefix.charAt(i);
+            if (c1 != c2) {
+                c1 = Character.toLowerCase(Character.toUpperCase(c1));
+                c2 = Character.toLowerCase(Character.toUpperCase(c2));
+                if (c1 != c2) return c1 - c2;
+            }
+        }
+        return value.length() >= prefix.length() ? 0 : -1;
+    }
+
     /**
      * Helper method to swap elements in list
      */
@@ -8,23 +8,49 @@ import java.awt.event.ActionListener;
 /**
  * Update Employee Dialog
  * Dialog for updating existing employee information
+ * Built once and reused; open() fills it in for the employee to update.
  */
 public class UpdateEmployeeDialog extends JDialog {
     
+    private final EmployeeRepository repository;
     private Employee employee;
     private boolean employeeUpdated = false;
     
+    private JTextField idField;
+    private JTextField typeField;
     private JTextField nameField;
     private JTextField departmentField;
     private JTextField salaryField;
     private JSpinner ratingSpinner;
+    private JLabel salaryInfoLabel;
     
-    public UpdateEmployeeDialog(JFrame parent, Employee employee) {
+    public UpdateEmployeeDialog(JFrame parent, EmployeeRepository repository) {
         super(parent, "Update Employee", true);
-        this.employee = employee;
+        this.repository = repository;
         initializeDialog();
     }
     
+    /**
+     * Fill the fields from an employee and show the dialog
+     */
+    public void open(Employee employee) {
+        this.employee = employee;
+        employeeUpdated = false;
+        idField.setText(employee.getId());
+        typeField.setText(employee.getClass().getSimpleName());
+        nameField.setText(employee.getName());
+        departmentField.setText(employee.getDepartment());
+        salaryField.setText(String.valueOf(employee.getSalary()));
+        ratingSpinner.setValue(employee.getPerformanceRating());
+        
+        double currentTotalSalary = employee.calculateSalary();
+        salaryInfoLabel.setText("<html><small>Current Total Salary: $" + String.format("%.2f", currentTotalSalary) + 
+                                " (Base: $" + String.format("%.2f", employee.getSalary()) + 
+                                " + Bonus: $" + String.format("%.2f", currentTotalSalary - employee.getSalary()) + ")</small></html>");
+        setLocationRelativeTo(getParent());
+        setVisible(true);
+    }
+    
     /**
      * Initialize the dialog components
      */
@@ -42,7 +68,7 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 0;
         mainPanel.add(new JLabel("Employee ID:"), gbc);
         gbc.gridx = 1;
-        JTextField idField = new JTextField(employee.getId());
+        idField = new JTextField(10);
         idField.setEditable(false);
         idField.setBackground(Color.LIGHT_GRAY);
         mainPanel.add(idField, gbc);
@@ -50,7 +76,7 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 1;
         mainPanel.add(new JLabel("Employee Type:"), gbc);
         gbc.gridx = 1;
-        JTextField typeField = new JTextField(employee.getClass().getSimpleName());
+        typeField = new JTextField(10);
         typeField.setEditable(false);
         typeField.setBackground(Color.LIGHT_GRAY);
         mainPanel.add(typeField, gbc);
@@ -59,7 +85,7 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 2;
         mainPanel.add(new JLabel("Employee Name:"), gbc);
         gbc.gridx = 1;
-        nameField = new JTextField(employee.getName(), 25);
+        nameField = new JTextField(25);
         nameField.setPreferredSize(new Dimension(200, 30));
         mainPanel.add(nameField, gbc);
         
@@ -67,7 +93,7 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 3;
         mainPanel.add(new JLabel("Department:"), gbc);
         gbc.gridx = 1;
-        departmentField = new JTextField(employee.getDepartment(), 25);
+        departmentField = new JTextField(25);
         departmentField.setPreferredSize(new Dimension(200, 30));
         mainPanel.add(departmentField, gbc);
         
@@ -75,7 +101,7 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 4;
         mainPanel.add(new JLabel("Base Salary:"), gbc);
         gbc.gridx = 1;
-        salaryField = new JTextField(String.valueOf(employee.getSalary()), 25);
+        salaryField = new JTextField(25);
         salaryField.setPreferredSize(new Dimension(200, 30));
         mainPanel.add(salaryField, gbc);
         
@@ -83,16 +109,13 @@ public class UpdateEmployeeDialog extends JDialog {
         gbc.gridx = 0; gbc.gridy = 5;
         mainPanel.add(new JLabel("Performance Rating:"), gbc);
         gbc.gridx = 1;
-        ratingSpinner = new JSpinner(new SpinnerNumberModel(employee.getPerformanceRating(), 1, 5, 1));
+        ratingSpinner = new JSpinner(new SpinnerNumberModel(3, 1, 5, 1));
         mainPanel.add(ratingSpinner, gbc);
         
         // Current salary info
         gbc.gridx = 0; gbc.gridy = 6;
         gbc.gridwidth = 2;
-        double currentTotalSalary = employee.calculateSalary();
-        JLabel salaryInfoLabel = new JLabel("<html><small>Current Total Salary: $" + String.format("%.2f", currentTotalSalary) + 
-                                          " (Base: $" + String.format("%.2f", employee.getSalary()) + 
-                                          " + Bonus: $" + String.format("%.2f", currentTotalSalary - employee.getSalary()) + ")</small></html>");
+        salaryInfoLabel = new JLabel();
         salaryInfoLabel.setForeground(Color.BLUE);
         mainPanel.add(salaryInfoLabel, gbc);
         
@@ -104,7 +127,7 @@ public class UpdateEmployeeDialog extends JDialog {
         JButton cancelButton = new JButton("Cancel");
         
         updateButton.addActionListener(e -> updateEmployee());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> setVisible(false));
         
         buttonPanel.add(updateButton);
         buttonPanel.add(cancelButton);
@@ -130,16 +153,18 @@ public class UpdateEmployeeDialog extends JDialog {
             double salary = Double.parseDouble(salaryField.getText().trim());
             int rating = (Integer) ratingSpinner.getValue();
             
-            // Update employee information
-            employee.setName(name);
-            employee.setDepartment(department);
-            employee.setSalary(salary);
-            employee.setPerformanceRating(rating);
+            // Update employee information through the repository
+            repository.update(employee, emp -> {
+                emp.setName(name);
+                emp.setDepartment(department);
+                emp.setSalary(salary);
+                emp.setPerformanceRating(rating);
+            });
             
             employeeUpdated = true;
             JOptionPane.showMessageDialog(this, "Employee updated successfully!", 
                                         "Success", JOptionPane.INFORMATION_MESSAGE);
-            dispose();
+            setVisible(false);
             
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Invalid salary format. Please enter a valid number.", 
@@ -4,6 +4,9 @@
  */
 module Employee {
     requires java.desktop;  // For GUI components (Swing, AWT)
+    requires java.management; // For heap and GC figures (performance HUD)
+    requires jdk.httpserver;  // For the embedded HTTP/JSON API
+    requires java.net.http;   // For the API load generator
     requires java.base;     // For basic Java functionality
     
     exports employee;       // Export the employee package